@@ -7,6 +7,7 @@ public class Board {
     private Map<Integer, HexTerrain> gameBoard;
     private Map<Integer, Intersection> connections;
     private List<Edge> edges;
+    private EdgeIndex edgeIndex;
     private List<Building> buildings;
 
     /**
@@ -16,6 +17,7 @@ public class Board {
         this.gameBoard = new HashMap<>();
         this.connections = new HashMap<>();
         this.edges = new ArrayList<>();
+        this.edgeIndex = new EdgeIndex(72);
         this.buildings = new ArrayList<>();
     }
 
@@ -74,11 +76,21 @@ public class Board {
             Intersection start = connections.get(i);
             Intersection end = connections.get((i + 1) % 54);
             if (start != null && end != null) {
-                edges.add(new Edge(start, end));
+                addEdge(new Edge(start, end));
             }
         }
     }
 
+    /**
+     * Adds an edge to the board and to the lookup index.
+     * 
+     * @param edge The edge to add
+     */
+    private void addEdge(Edge edge) {
+        edges.add(edge);
+        edgeIndex.put(edge);
+    }
+
     /**
      * Gets the current board configuration.
      * 
@@ -154,27 +166,15 @@ public class Board {
     }
 
     /**
-     * Finds an edge between two intersections.
+     * Finds an edge between two intersections, in either order.
+     * Uses the edge index, so the cost does not depend on how many edges the board has.
      * 
      * @param loc1 First intersection location
      * @param loc2 Second intersection location
      * @return The Edge connecting them, or null if not found
      */
     public Edge findEdge(int loc1, int loc2) {
-        Intersection int1 = connections.get(loc1);
-        Intersection int2 = connections.get(loc2);
-        
-        if (int1 == null || int2 == null) {
-            return null;
-        }
-        
-        for (Edge edge : edges) {
-            if ((edge.getStart().equals(int1) && edge.getEnd().equals(int2)) ||
-                (edge.getStart().equals(int2) && edge.getEnd().equals(int1))) {
-                return edge;
-            }
-        }
-        return null;
+        return edgeIndex.get(loc1, loc2);
     }
 
     /**
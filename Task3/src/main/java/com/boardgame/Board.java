@@ -8,17 +8,22 @@ import java.util.*;
  */
 public class Board {
     private Map<Integer, HexTerrain> gameBoard; // Hex ID -> Terrain type
+    private Map<Integer, Integer> numberTokens; // Hex ID -> Number token (0 for the desert)
     private Map<Integer, Intersection> connections; // Intersection ID -> Intersection
     private List<Edge> edges;
+    private EdgeIndex edgeIndex; // Packed intersection pair -> Edge
     private List<Building> buildings;
+    private ProductionIndex productionIndex;
     
     /**
      * Constructs an empty Board.
      */
     public Board() {
         this.gameBoard = new HashMap<>();
+        this.numberTokens = new HashMap<>();
         this.connections = new HashMap<>();
         this.edges = new ArrayList<>();
+        this.edgeIndex = new EdgeIndex(72);
         this.buildings = new ArrayList<>();
     }
     
@@ -48,6 +53,12 @@ public class Board {
         gameBoard.put(18, HexTerrain.PASTURE);
         gameBoard.put(19, HexTerrain.DESERT);
         
+        // Number tokens, same order as the hexes; the desert in the centre has none
+        int[] numbers = {5, 2, 6, 3, 8, 10, 9, 12, 11, 4, 8, 10, 9, 4, 5, 6, 3, 11, 0};
+        for (int i = 0; i < numbers.length; i++) {
+            numberTokens.put(i + 1, numbers[i]);
+        }
+        
         // Generate intersections
         for (int i = 1; i <= 54; i++) {
             connections.put(i, new Intersection(i));
@@ -56,24 +67,30 @@ public class Board {
         // Generate edges between intersections
         generateEdges();
         
+        // Index which intersections produce on each roll
+        productionIndex = new ProductionIndex(this);
+        
         System.out.println("Board generated with " + gameBoard.size() + " hexes, " + 
                          connections.size() + " intersections, and " + edges.size() + " edges.");
     }
     
     /**
      * Generates edges connecting intersections.
-     * This creates the road network on the board.
+     * Creates one edge for every hex side on the standard board (72 edges), following HexGeometry.
      */
     private void generateEdges() {
-        // Example edge connections (simplified)
-        // In a real implementation, this would connect all adjacent intersections
-        for (int i = 1; i < connections.size(); i++) {
-            if (connections.containsKey(i) && connections.containsKey(i + 1)) {
-                edges.add(new Edge(connections.get(i), connections.get(i + 1)));
-            }
+        for (int[] pair : HexGeometry.getEdges()) {
+            addEdge(new Edge(connections.get(pair[0]), connections.get(pair[1])));
         }
-        // Add more complex connections based on hex geometry
-        // This is simplified; actual hex board would have more intricate connections
+    }
+    
+    /**
+     * Adds an edge to the board and to the lookup index.
+     * @param edge The edge to add
+     */
+    private void addEdge(Edge edge) {
+        edges.add(edge);
+        edgeIndex.put(edge);
     }
     
     /**
@@ -93,6 +110,23 @@ public class Board {
         return gameBoard.get(tileNum);
     }
     
+    /**
+     * Gets the number token on a hex.
+     * @param hexId The hex ID
+     * @return The number (2-12), or 0 for the desert or an unknown hex
+     */
+    public int getNumberToken(int hexId) {
+        return numberTokens.getOrDefault(hexId, 0);
+    }
+    
+    /**
+     * Gets the roll-to-intersection production index.
+     * @return The index, or null if the board has not been generated yet
+     */
+    public ProductionIndex getProductionIndex() {
+        return productionIndex;
+    }
+    
     /**
      * Sets up the initial board state.
      */
@@ -111,21 +145,72 @@ public class Board {
     }
     
     /**
-     * Gets an edge connecting two intersections.
+     * Gets an edge connecting two intersections, in either order.
+     * Uses the edge index, so the cost does not depend on how many edges the board has.
      * @param intersection1 First intersection ID
      * @param intersection2 Second intersection ID
      * @return The edge connecting them, or null if not found
      */
     public Edge getEdge(int intersection1, int intersection2) {
-        for (Edge edge : edges) {
-            if ((edge.getStart().getIntersectionLocation() == intersection1 && 
-                 edge.getEnd().getIntersectionLocation() == intersection2) ||
-                (edge.getStart().getIntersectionLocation() == intersection2 && 
-                 edge.getEnd().getIntersectionLocation() == intersection1)) {
-                return edge;
-            }
+        return edgeIndex.get(intersection1, intersection2);
+    }
+    
+    /**
+     * Gets the intersections that share an edge with an intersection.
+     * @param intersectionId The intersection ID
+     * @return List of neighbouring intersection IDs (empty if the ID is not on the board)
+     */
+    public List<Integer> getAdjacentIntersections(int intersectionId) {
+        List<Integer> neighbours = new ArrayList<>();
+        if (intersectionId < 1 || intersectionId > HexGeometry.INTERSECTION_COUNT) {
+            return neighbours;
+        }
+        for (int neighbour : HexGeometry.getNeighbours(intersectionId)) {
+            neighbours.add(neighbour);
+        }
+        return neighbours;
+    }
+    
+    /**
+     * Checks whether two intersections share an edge.
+     * @param intersection1 First intersection ID
+     * @param intersection2 Second intersection ID
+     * @return true if an edge connects them
+     */
+    public boolean areAdjacent(int intersection1, int intersection2) {
+        return edgeIndex.get(intersection1, intersection2) != null;
+    }
+    
+    /**
+     * Gets the intersections around a hex.
+     * @param hexId The hex ID
+     * @return List of the six intersection IDs clockwise from the top (empty if the ID is not on the board)
+     */
+    public List<Integer> getHexIntersections(int hexId) {
+        List<Integer> corners = new ArrayList<>();
+        if (hexId < 1 || hexId > HexGeometry.HEX_COUNT) {
+            return corners;
+        }
+        for (int corner : HexGeometry.getHexCorners(hexId)) {
+            corners.add(corner);
+        }
+        return corners;
+    }
+    
+    /**
+     * Gets the hexes an intersection touches.
+     * @param intersectionId The intersection ID
+     * @return List of hex IDs (empty if the ID is not on the board)
+     */
+    public List<Integer> getIntersectionHexes(int intersectionId) {
+        List<Integer> hexes = new ArrayList<>();
+        if (intersectionId < 1 || intersectionId > HexGeometry.INTERSECTION_COUNT) {
+            return hexes;
+        }
+        for (int hex : HexGeometry.getIntersectionHexes(intersectionId)) {
+            hexes.add(hex);
         }
-        return null;
+        return hexes;
     }
     
     /**
@@ -0,0 +1,107 @@
+package com.boardgame;
+
+import java.util.Arrays;
+
+/**
+ * Constant-time lookup of edges by their two intersection IDs.
+ * Each edge is stored under a key packing the smaller ID in the high 16 bits and the larger in the low 16 bits,
+ * so both orientations find the same edge. Keys live in a primitive open-addressing table (linear probing),
+ * which avoids boxing the keys on every lookup.
+ */
+public class EdgeIndex {
+    private static final int EMPTY = -1;
+
+    private int[] keys;
+    private Edge[] values;
+    private int size;
+
+    /**
+     * Constructs an empty index sized for the given number of edges.
+     * @param expectedEdges How many edges are expected; the table grows if more are added
+     */
+    public EdgeIndex(int expectedEdges) {
+        int capacity = 16;
+        while (capacity < expectedEdges * 2) {
+            capacity *= 2;
+        }
+        keys = new int[capacity];
+        values = new Edge[capacity];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    /**
+     * Packs an unordered pair of intersection IDs into one key.
+     * @param intersection1 First intersection ID (0 to 65535)
+     * @param intersection2 Second intersection ID (0 to 65535)
+     * @return The key shared by both orientations of the pair
+     */
+    public static int key(int intersection1, int intersection2) {
+        int low = Math.min(intersection1, intersection2);
+        int high = Math.max(intersection1, intersection2);
+        return (low << 16) | high;
+    }
+
+    /**
+     * Adds an edge under its two intersection IDs, replacing any edge already stored for that pair.
+     * @param edge The edge to index
+     */
+    public void put(Edge edge) {
+        if ((size + 1) * 2 > keys.length) {
+            grow();
+        }
+        int key = key(edge.getStart().getIntersectionLocation(), edge.getEnd().getIntersectionLocation());
+        int slot = slotFor(key);
+        if (keys[slot] == EMPTY) {
+            keys[slot] = key;
+            size++;
+        }
+        values[slot] = edge;
+    }
+
+    /**
+     * Gets the edge between two intersections, in either order.
+     * @param intersection1 First intersection ID
+     * @param intersection2 Second intersection ID
+     * @return The edge, or null if there is none
+     */
+    public Edge get(int intersection1, int intersection2) {
+        if (intersection1 < 0 || intersection2 < 0 || intersection1 > 0xFFFF || intersection2 > 0xFFFF) {
+            return null;
+        }
+        int slot = slotFor(key(intersection1, intersection2));
+        return keys[slot] == EMPTY ? null : values[slot];
+    }
+
+    /**
+     * Gets the number of edges in the index.
+     * @return The edge count
+     */
+    public int size() {
+        return size;
+    }
+
+    private int slotFor(int key) {
+        int mask = keys.length - 1;
+        int hash = key * 0x9E3779B9;
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        Edge[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new Edge[oldKeys.length * 2];
+        Arrays.fill(keys, EMPTY);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slotFor(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.boardgame;
+
+import java.util.*;
+
+/**
+ * Layout of the standard 19-hex board: which intersections each hex has and which intersections share an edge.
+ * Hexes and intersections are placed on a pointy-top hex grid and numbered ring by ring, clockwise from the top:
+ * hexes 1-12 form the outer ring, 13-18 the inner ring and 19 is the centre; intersections 1-30 run around the
+ * coast, 31-48 around the inner ring and 49-54 around the centre hex. Consecutive intersections in a ring are
+ * neighbours, so each ring is a closed loop of edges, and the remaining edges are the spokes between rings
+ * (72 edges in total). Everything is computed once and shared; the arrays must not be modified.
+ */
+public final class HexGeometry {
+    /** Number of hexes on the standard board. */
+    public static final int HEX_COUNT = 19;
+    /** Number of intersections on the standard board. */
+    public static final int INTERSECTION_COUNT = 54;
+
+    private static final int RADIUS = 2;
+    // Corner offsets of a pointy-top hex, clockwise from the top. x is in half hex widths and y in half side
+    // lengths, so the centre of hex (q, r) is at x = 2q + r, y = 3r and every position is a whole number.
+    private static final int[] CORNER_DX = { 0, 1, 1, 0, -1, -1 };
+    private static final int[] CORNER_DY = { -2, -1, 1, 2, 1, -1 };
+
+    // Hex ID -> its six intersection IDs, clockwise from the top (index 0 unused).
+    private static final int[][] HEX_CORNERS = new int[HEX_COUNT + 1][];
+    // Intersection ID -> neighbouring intersection IDs, ascending (index 0 unused).
+    private static final int[][] NEIGHBOURS = new int[INTERSECTION_COUNT + 1][];
+    // Intersection ID -> IDs of the hexes it touches (index 0 unused).
+    private static final int[][] INTERSECTION_HEXES = new int[INTERSECTION_COUNT + 1][];
+    // Each edge as {lower ID, higher ID}, in the order the hexes list them.
+    private static final List<int[]> EDGES = new ArrayList<>();
+
+    static {
+        build();
+    }
+
+    private HexGeometry() {
+    }
+
+    /**
+     * Gets the intersections around a hex.
+     * @param hexId The hex ID (1 to 19)
+     * @return The six intersection IDs, clockwise from the top
+     */
+    public static int[] getHexCorners(int hexId) {
+        return HEX_CORNERS[hexId];
+    }
+
+    /**
+     * Gets the intersections one edge away from an intersection.
+     * @param intersectionId The intersection ID (1 to 54)
+     * @return The neighbouring intersection IDs in ascending order (two or three of them)
+     */
+    public static int[] getNeighbours(int intersectionId) {
+        return NEIGHBOURS[intersectionId];
+    }
+
+    /**
+     * Gets the hexes an intersection sits on.
+     * @param intersectionId The intersection ID (1 to 54)
+     * @return The IDs of the one to three hexes touching the intersection
+     */
+    public static int[] getIntersectionHexes(int intersectionId) {
+        return INTERSECTION_HEXES[intersectionId];
+    }
+
+    /**
+     * Gets every edge as a pair of intersection IDs.
+     * @return Unmodifiable list of {lower ID, higher ID} pairs
+     */
+    public static List<int[]> getEdges() {
+        return Collections.unmodifiableList(EDGES);
+    }
+
+    private static void build() {
+        // Hex centres in axial coordinates (q, r), grouped by ring from the outside in, clockwise from the top.
+        List<int[]> hexes = new ArrayList<>();
+        for (int q = -RADIUS; q <= RADIUS; q++) {
+            for (int r = Math.max(-RADIUS, -q - RADIUS); r <= Math.min(RADIUS, -q + RADIUS); r++) {
+                hexes.add(new int[] { 2 * q + r, 3 * r, ring(q, r) });
+            }
+        }
+        hexes.sort(Comparator.comparingInt((int[] hex) -> -hex[2]).thenComparingDouble(hex -> angle(hex[0], hex[1])));
+
+        // Each corner as {x, y, ring}; a corner's ring is the innermost ring of the hexes it touches.
+        Map<Long, int[]> corners = new HashMap<>();
+        for (int[] hex : hexes) {
+            for (int k = 0; k < 6; k++) {
+                int x = hex[0] + CORNER_DX[k];
+                int y = hex[1] + CORNER_DY[k];
+                int[] corner = corners.computeIfAbsent(position(x, y), key -> new int[] { x, y, hex[2] });
+                corner[2] = Math.min(corner[2], hex[2]);
+            }
+        }
+        List<int[]> ordered = new ArrayList<>(corners.values());
+        ordered.sort(Comparator.comparingInt((int[] corner) -> -corner[2]).thenComparingDouble(corner -> angle(corner[0], corner[1])));
+        Map<Long, Integer> cornerIds = new HashMap<>();
+        for (int i = 0; i < ordered.size(); i++) {
+            cornerIds.put(position(ordered.get(i)[0], ordered.get(i)[1]), i + 1);
+        }
+
+        List<Set<Integer>> neighbourSets = new ArrayList<>();
+        List<List<Integer>> hexLists = new ArrayList<>();
+        for (int i = 0; i <= INTERSECTION_COUNT; i++) {
+            neighbourSets.add(new TreeSet<>());
+            hexLists.add(new ArrayList<>());
+        }
+        for (int hexId = 1; hexId <= HEX_COUNT; hexId++) {
+            int[] hex = hexes.get(hexId - 1);
+            HEX_CORNERS[hexId] = new int[6];
+            for (int k = 0; k < 6; k++) {
+                int id = cornerIds.get(position(hex[0] + CORNER_DX[k], hex[1] + CORNER_DY[k]));
+                HEX_CORNERS[hexId][k] = id;
+                hexLists.get(id).add(hexId);
+            }
+            for (int k = 0; k < 6; k++) {
+                int a = HEX_CORNERS[hexId][k];
+                int b = HEX_CORNERS[hexId][(k + 1) % 6];
+                if (neighbourSets.get(a).add(b)) {
+                    neighbourSets.get(b).add(a);
+                    EDGES.add(new int[] { Math.min(a, b), Math.max(a, b) });
+                }
+            }
+        }
+        for (int id = 1; id <= INTERSECTION_COUNT; id++) {
+            NEIGHBOURS[id] = neighbourSets.get(id).stream().mapToInt(Integer::intValue).toArray();
+            INTERSECTION_HEXES[id] = hexLists.get(id).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    // Hex distance of (q, r) from the centre hex.
+    private static int ring(int q, int r) {
+        return Math.max(Math.abs(q), Math.max(Math.abs(r), Math.abs(q + r)));
+    }
+
+    // Clockwise angle from straight up, in [0, 2pi). A half hex width is sqrt(3) half side lengths.
+    private static double angle(int x, int y) {
+        double angle = Math.atan2(x * Math.sqrt(3), -y);
+        return angle < 0 ? angle + 2 * Math.PI : angle;
+    }
+
+    private static long position(int x, int y) {
+        return ((long) x << 32) ^ (y & 0xFFFFFFFFL);
+    }
+}
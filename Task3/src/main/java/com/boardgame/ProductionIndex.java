@@ -0,0 +1,83 @@
+package com.boardgame;
+
+import java.util.*;
+
+/**
+ * Index from dice roll to the intersections that produce on it.
+ * For every roll number it keeps a flat list of (intersection, resource) slots: one slot per corner of each hex
+ * carrying that number token. A roll only walks its own slots and pays whoever has a building there, one card for a
+ * settlement and two for a city. Buildings are read from the intersections at roll time, so settlements and cities
+ * placed straight onto an intersection are paid without registering anywhere, and a roll allocates nothing.
+ */
+public class ProductionIndex {
+    private static final int MAX_ROLL = 12;
+    
+    private final Intersection[][] rollIntersections = new Intersection[MAX_ROLL + 1][];
+    private final String[][] rollResources = new String[MAX_ROLL + 1][];
+    
+    /**
+     * Builds the index for a generated board.
+     * @param board The board, after generateBoard()
+     */
+    public ProductionIndex(Board board) {
+        List<List<Intersection>> intersections = new ArrayList<>();
+        List<List<String>> resources = new ArrayList<>();
+        for (int roll = 0; roll <= MAX_ROLL; roll++) {
+            intersections.add(new ArrayList<>());
+            resources.add(new ArrayList<>());
+        }
+        
+        for (int hexId = 1; hexId <= HexGeometry.HEX_COUNT; hexId++) {
+            HexTerrain terrain = board.getHexTile(hexId);
+            int roll = board.getNumberToken(hexId);
+            if (terrain == null || !terrain.producesResource() || roll < 2 || roll > MAX_ROLL) {
+                continue;
+            }
+            for (int corner : HexGeometry.getHexCorners(hexId)) {
+                intersections.get(roll).add(board.getIntersection(corner));
+                resources.get(roll).add(terrain.getResource());
+            }
+        }
+        
+        for (int roll = 0; roll <= MAX_ROLL; roll++) {
+            rollIntersections[roll] = intersections.get(roll).toArray(new Intersection[0]);
+            rollResources[roll] = resources.get(roll).toArray(new String[0]);
+        }
+    }
+    
+    /**
+     * Pays out a dice roll to every building on a hex with that number.
+     * @param roll The dice roll (2-12; anything else produces nothing)
+     * @return The number of resource cards handed out
+     */
+    public int produce(int roll) {
+        if (roll < 0 || roll > MAX_ROLL) {
+            return 0;
+        }
+        Intersection[] intersections = rollIntersections[roll];
+        String[] resources = rollResources[roll];
+        int cards = 0;
+        for (int i = 0; i < intersections.length; i++) {
+            Building building = intersections[i].getIntersectionBuilding();
+            if (building == null) {
+                continue;
+            }
+            int amount = building instanceof City ? 2 : 1;
+            building.getOwner().addResource(resources[i], amount);
+            cards += amount;
+        }
+        return cards;
+    }
+    
+    /**
+     * Gets how many hex corners produce on a roll.
+     * @param roll The dice roll
+     * @return The number of (intersection, hex) slots for that roll
+     */
+    public int getSlotCount(int roll) {
+        if (roll < 0 || roll > MAX_ROLL) {
+            return 0;
+        }
+        return rollIntersections[roll].length;
+    }
+}
@@ -77,32 +77,17 @@ public class Simulator {
     
     /**
      * Distributes resources to players based on dice roll.
+     * Every settlement on a hex with that number token gets one of the hex's resource and every city gets two.
      * @param resourceNum The dice roll number (2-12)
      */
     public void resourceProduction(int resourceNum) {
         System.out.println("  Resource production for roll " + resourceNum);
         
-        // Check each hex on the board
-        for (Map.Entry<Integer, HexTerrain> entry : board.getCurrentBoard().entrySet()) {
-            HexTerrain terrain = entry.getValue();
-            
-            // Simple resource distribution logic
-            // In a real game, this would be based on number tokens on hexes
-            if (terrain.producesResource()) {
-                // Give resources to players with buildings adjacent to this hex
-                // This is simplified; actual implementation would check adjacency
-                for (Player player : players) {
-                    for (Settlement settlement : player.getSettlements()) {
-                        // Simplified: give 1 resource per settlement
-                        player.addResource(terrain.getResource(), 1);
-                    }
-                    for (City city : player.getCities()) {
-                        // Cities produce 2 resources
-                        player.addResource(terrain.getResource(), 2);
-                    }
-                }
-            }
+        ProductionIndex production = board.getProductionIndex();
+        if (production == null) {
+            return;
         }
+        production.produce(resourceNum);
     }
     
     /**
@@ -67,6 +67,70 @@ public class BoardTest {
         assertNotNull(edge);
     }
     
+    @Test
+    public void testGetEdgeReversed() {
+        board.generateBoard();
+        
+        assertSame(board.getEdge(1, 2), board.getEdge(2, 1));
+    }
+    
+    @Test
+    public void testGetEdgeMissing() {
+        board.generateBoard();
+        
+        assertNull(board.getEdge(1, 1));
+        assertNull(board.getEdge(1, 999));
+    }
+    
+    @Test
+    public void testEveryEdgeIsFound() {
+        board.generateBoard();
+        
+        for (Edge edge : board.getEdges()) {
+            int start = edge.getStart().getIntersectionLocation();
+            int end = edge.getEnd().getIntersectionLocation();
+            assertSame(edge, board.getEdge(start, end));
+            assertSame(edge, board.getEdge(end, start));
+        }
+    }
+    
+    @Test
+    public void testGenerateBoardHasHexGeometryEdges() {
+        board.generateBoard();
+        
+        assertEquals(72, board.getEdges().size());
+        assertNotNull(board.getEdge(5, 6));
+        assertNotNull(board.getEdge(30, 1));
+        assertNull(board.getEdge(30, 31));
+    }
+    
+    @Test
+    public void testGetAdjacentIntersections() {
+        board.generateBoard();
+        
+        for (Intersection intersection : board.getIntersections()) {
+            int id = intersection.getIntersectionLocation();
+            for (int neighbour : board.getAdjacentIntersections(id)) {
+                assertTrue(board.areAdjacent(id, neighbour));
+                assertTrue(board.getAdjacentIntersections(neighbour).contains(id));
+            }
+        }
+        assertTrue(board.getAdjacentIntersections(0).isEmpty());
+        assertTrue(board.getAdjacentIntersections(55).isEmpty());
+    }
+    
+    @Test
+    public void testHexIntersections() {
+        board.generateBoard();
+        
+        assertEquals(6, board.getHexIntersections(1).size());
+        assertTrue(board.getHexIntersections(20).isEmpty());
+        for (int corner : board.getHexIntersections(19)) {
+            assertTrue(board.getIntersectionHexes(corner).contains(19));
+            assertEquals(3, board.getIntersectionHexes(corner).size());
+        }
+    }
+    
     @Test
     public void testAddBuilding() {
         board.generateBoard();
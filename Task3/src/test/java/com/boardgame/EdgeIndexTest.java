@@ -0,0 +1,68 @@
+package com.boardgame;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the EdgeIndex class.
+ */
+public class EdgeIndexTest {
+    
+    private EdgeIndex index;
+    
+    @BeforeEach
+    public void setUp() {
+        index = new EdgeIndex(4);
+    }
+    
+    @Test
+    public void testKeyIgnoresOrder() {
+        assertEquals(EdgeIndex.key(3, 17), EdgeIndex.key(17, 3));
+        assertNotEquals(EdgeIndex.key(3, 17), EdgeIndex.key(3, 18));
+    }
+    
+    @Test
+    public void testGetBothOrientations() {
+        Edge edge = new Edge(new Intersection(5), new Intersection(6));
+        index.put(edge);
+        
+        assertSame(edge, index.get(5, 6));
+        assertSame(edge, index.get(6, 5));
+        assertEquals(1, index.size());
+    }
+    
+    @Test
+    public void testGetMissing() {
+        index.put(new Edge(new Intersection(1), new Intersection(2)));
+        
+        assertNull(index.get(1, 3));
+        assertNull(index.get(-1, 2));
+        assertNull(index.get(1, 70000));
+    }
+    
+    @Test
+    public void testPutSamePairReplaces() {
+        Edge first = new Edge(new Intersection(1), new Intersection(2));
+        Edge second = new Edge(new Intersection(2), new Intersection(1));
+        index.put(first);
+        index.put(second);
+        
+        assertSame(second, index.get(1, 2));
+        assertEquals(1, index.size());
+    }
+    
+    @Test
+    public void testGrowsPastExpectedSize() {
+        Edge[] edges = new Edge[200];
+        for (int i = 0; i < edges.length; i++) {
+            edges[i] = new Edge(new Intersection(i), new Intersection(i + 1));
+            index.put(edges[i]);
+        }
+        
+        assertEquals(200, index.size());
+        for (int i = 0; i < edges.length; i++) {
+            assertSame(edges[i], index.get(i + 1, i));
+        }
+    }
+}
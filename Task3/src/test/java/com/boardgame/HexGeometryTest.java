@@ -0,0 +1,90 @@
+package com.boardgame;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the HexGeometry class.
+ */
+public class HexGeometryTest {
+    
+    @Test
+    public void testEdgeCount() {
+        assertEquals(72, HexGeometry.getEdges().size());
+    }
+    
+    @Test
+    public void testNeighbourCounts() {
+        int coastal = 0;
+        for (int id = 1; id <= HexGeometry.INTERSECTION_COUNT; id++) {
+            int degree = HexGeometry.getNeighbours(id).length;
+            assertTrue(degree == 2 || degree == 3);
+            if (degree == 2) {
+                coastal++;
+            }
+        }
+        assertEquals(18, coastal);
+    }
+    
+    @Test
+    public void testNeighboursAreSymmetric() {
+        for (int id = 1; id <= HexGeometry.INTERSECTION_COUNT; id++) {
+            for (int neighbour : HexGeometry.getNeighbours(id)) {
+                boolean found = false;
+                for (int back : HexGeometry.getNeighbours(neighbour)) {
+                    found |= back == id;
+                }
+                assertTrue(found, id + " -> " + neighbour);
+            }
+        }
+    }
+    
+    @Test
+    public void testHexCornersAreDistinctAndLinked() {
+        for (int hexId = 1; hexId <= HexGeometry.HEX_COUNT; hexId++) {
+            int[] corners = HexGeometry.getHexCorners(hexId);
+            assertEquals(6, corners.length);
+            for (int k = 0; k < 6; k++) {
+                int a = corners[k];
+                int b = corners[(k + 1) % 6];
+                assertNotEquals(a, b);
+                assertTrue(contains(HexGeometry.getNeighbours(a), b));
+                assertTrue(contains(HexGeometry.getIntersectionHexes(a), hexId));
+            }
+        }
+    }
+    
+    @Test
+    public void testRingsAreLoops() {
+        int[][] rings = { { 1, 30 }, { 31, 48 }, { 49, 54 } };
+        for (int[] ring : rings) {
+            for (int id = ring[0]; id <= ring[1]; id++) {
+                int next = id == ring[1] ? ring[0] : id + 1;
+                assertTrue(contains(HexGeometry.getNeighbours(id), next), id + " -> " + next);
+            }
+        }
+    }
+    
+    @Test
+    public void testCentreHex() {
+        assertArrayEquals(new int[] { 49, 50, 51, 52, 53, 54 }, HexGeometry.getHexCorners(19));
+    }
+    
+    @Test
+    public void testHexesPerIntersection() {
+        int total = 0;
+        for (int id = 1; id <= HexGeometry.INTERSECTION_COUNT; id++) {
+            total += HexGeometry.getIntersectionHexes(id).length;
+        }
+        assertEquals(19 * 6, total);
+    }
+    
+    private static boolean contains(int[] values, int value) {
+        for (int v : values) {
+            if (v == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,79 @@
+package com.boardgame;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the ProductionIndex class.
+ */
+public class ProductionIndexTest {
+    
+    private Board board;
+    private Player player;
+    
+    @BeforeEach
+    public void setUp() {
+        board = new Board();
+        board.setupBoard();
+        player = new Player("Alice");
+    }
+    
+    @Test
+    public void testSlotsCoverEveryProducingHex() {
+        ProductionIndex production = board.getProductionIndex();
+        int total = 0;
+        for (int roll = 2; roll <= 12; roll++) {
+            total += production.getSlotCount(roll);
+        }
+        // 18 producing hexes with six corners each; the desert has no number
+        assertEquals(18 * 6, total);
+        assertEquals(0, production.getSlotCount(7));
+        assertEquals(0, production.getSlotCount(13));
+    }
+    
+    @Test
+    public void testSettlementGetsOneOfEachMatchingHex() {
+        // Intersection 31 sits on hex 1 (forest, 5), hex 13 (hills, 9) and hex 18 (pasture, 11)
+        Intersection intersection = board.getIntersection(31);
+        intersection.setOccupiedBy(new Settlement(player, intersection));
+        
+        assertEquals(1, board.getProductionIndex().produce(9));
+        assertEquals(1, player.getResourceAmount("BRICK"));
+        assertEquals(0, player.getResourceAmount("WOOD"));
+        assertEquals(0, player.getResourceAmount("WOOL"));
+    }
+    
+    @Test
+    public void testCityGetsTwo() {
+        Intersection intersection = board.getIntersection(31);
+        intersection.setOccupiedBy(new City(player, intersection));
+        
+        assertEquals(2, board.getProductionIndex().produce(5));
+        assertEquals(2, player.getResourceAmount("WOOD"));
+    }
+    
+    @Test
+    public void testNonMatchingRollPaysNothing() {
+        Intersection intersection = board.getIntersection(31);
+        intersection.setOccupiedBy(new Settlement(player, intersection));
+        
+        assertEquals(0, board.getProductionIndex().produce(6));
+        assertEquals(0, board.getProductionIndex().produce(7));
+        assertEquals(0, player.getResourceAmount("WOOD"));
+        assertEquals(0, player.getResourceAmount("BRICK"));
+    }
+    
+    @Test
+    public void testDesertNeverProduces() {
+        // Intersection 49 sits on hex 13 (hills, 9), hex 18 (pasture, 11) and the desert
+        Intersection intersection = board.getIntersection(49);
+        intersection.setOccupiedBy(new Settlement(player, intersection));
+        
+        int cards = 0;
+        for (int roll = 2; roll <= 12; roll++) {
+            cards += board.getProductionIndex().produce(roll);
+        }
+        assertEquals(2, cards);
+    }
+}
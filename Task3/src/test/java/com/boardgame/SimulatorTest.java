@@ -117,6 +117,29 @@ public class SimulatorTest {
         assertTrue(finalResources >= initialResources);
     }
     
+    @Test
+    public void testResourceProductionOnlyPaysMatchingHexes() {
+        simulator.addPlayer(player1);
+        simulator.addPlayer(player2);
+        simulator.setupBoard();
+        Board board = simulator.getBoard();
+        
+        // Intersection 2 touches hex 1 (forest, 5) and hex 2 (hills, 2); intersection 31 touches hex 1 as well
+        Intersection first = board.getIntersection(2);
+        first.setOccupiedBy(new Settlement(player1, first));
+        Intersection second = board.getIntersection(31);
+        second.setOccupiedBy(new City(player2, second));
+        
+        simulator.resourceProduction(5);
+        assertEquals(1, player1.getResourceAmount("WOOD"));
+        assertEquals(2, player2.getResourceAmount("WOOD"));
+        assertEquals(0, player1.getResourceAmount("BRICK"));
+        
+        simulator.resourceProduction(2);
+        assertEquals(1, player1.getResourceAmount("BRICK"));
+        assertEquals(0, player2.getResourceAmount("BRICK"));
+    }
+    
     @Test
     public void testGetBoard() {
         assertNotNull(simulator.getBoard());
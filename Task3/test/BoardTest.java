@@ -76,6 +76,19 @@ public class BoardTest {
         }
     }
 
+    @Test
+    public void testFindEdgeEitherOrder() {
+        board.generateBoard();
+        
+        for (Edge edge : board.getEdges()) {
+            int start = edge.getStart().getIntersectionLocation();
+            int end = edge.getEnd().getIntersectionLocation();
+            assertSame(edge, board.findEdge(start, end));
+            assertSame(edge, board.findEdge(end, start));
+        }
+        assertNull(board.findEdge(0, 999));
+    }
+
     @Test
     public void testSetupBoard() {
         board.setupBoard();
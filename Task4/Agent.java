@@ -0,0 +1,9 @@
+// Decides what a player builds on their turn. Turn rolls and pays out, fills the player's legal moves into a
+// MoveList, asks the agent, then plays the move it picked, so an agent only holds policy: no board changes, no
+// legality checks. Both arguments are reused from turn to turn; copy anything you want to keep.
+interface Agent {
+    // Index into moves of the build to try, or PASS to do nothing this turn.
+    int chooseMove(GameView view, MoveList moves);
+
+    int PASS = -1;
+}
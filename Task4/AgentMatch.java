@@ -0,0 +1,57 @@
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Plays MCTS (or expectimax) in seat 1 against three random bots and prints how often each seat wins, plus the search
+// speed in playouts/second (nodes/second and average depth for expectimax, which ignores threads). Games are set up
+// like BatchRunner's and seeded the same way, so runs can be repeated.
+// Usage: java AgentMatch.java [games] [threads] [root|tree|expectimax] [ms per move] [seed]
+class AgentMatch {
+
+    public static void main(String[] args) throws Exception {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        String mode = args.length > 2 ? args[2].toLowerCase() : "tree";
+        long millis = args.length > 3 ? Long.parseLong(args[3]) : 20;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : System.nanoTime();
+
+        if (mode.equals("expectimax")) {
+            ExpectimaxAgent agent = ExpectimaxAgent.timed(millis);
+            playGames(agent, games, seed);
+            System.out.printf("Expectimax: %d ms per move, %.0f nodes/second, average depth %.1f%n", millis, agent.getNodesPerSecond(), agent.getAverageDepth());
+            return;
+        }
+        MctsAgent.Parallelism parallelism = mode.equals("root") ? MctsAgent.Parallelism.ROOT : MctsAgent.Parallelism.TREE;
+        try (MctsAgent agent = MctsAgent.timed(threads, parallelism, millis, seed)) {
+            playGames(agent, games, seed);
+            System.out.printf("MCTS: %d threads (%s), %d ms per move, %.0f playouts/second%n", threads, parallelism, millis, agent.getPlayoutsPerSecond());
+        }
+    }
+
+    private static void playGames(Agent agent, int games, long seed) {
+        BatchStats stats = new BatchStats(4);
+        long startTime = System.nanoTime();
+        for (int g = 0; g < games; g++) {
+            stats.record(playGame(agent, 100, BatchRunner.gameSeed(seed, g)));
+        }
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+
+        System.out.println("Seed: " + seed);
+        System.out.print(stats.summary());
+        System.out.printf("Time: %.2f s%n", seconds);
+    }
+
+    static GameResult playGame(Agent agent, int maxRounds, long seed) {
+        SplittableRandom gameRandom = new SplittableRandom(seed);
+        Board board = new Board();
+        List<Player> players = Catan.createPlayers();
+        Dice dice = new Dice(gameRandom.split());
+        for (Player player : players) {
+            player.setRandom(gameRandom.split());
+        }
+        Catan.placeStartingSettlements(board, players, gameRandom.split());
+        players.get(0).setAgent(agent);
+
+        Turn turn = new Turn(dice, new Production(board), board, NoOpEventSink.INSTANCE);
+        return new Simulator(players, turn, maxRounds, NoOpEventSink.INSTANCE).runGame();
+    }
+}
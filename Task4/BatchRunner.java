@@ -0,0 +1,78 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Headless mode: plays lots of games with nothing printed per turn, spread over a fixed thread pool, and prints
+// the combined results plus games/second. Every game gets its own Board, Players, Dice, Turn and Simulator.
+// Game i is seeded from (master seed, i) only, so the same seed gives the same totals whatever the thread count.
+// Usage: java BatchRunner.java [games] [maxRounds] [threads] [seed]
+class BatchRunner {
+
+    public static void main(String[] args) throws Exception {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int maxRounds = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+
+        long startTime = System.nanoTime();
+        BatchStats stats = runBatch(games, maxRounds, threads, seed);
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+
+        System.out.println("Seed: " + seed);
+        System.out.print(stats.summary());
+        System.out.printf("Threads: %d, time: %.2f s, games/second: %.1f%n", threads, seconds, games / seconds);
+    }
+
+    // Thread t plays games t, t + threads, ...; each thread keeps its own stats and they are merged at the end.
+    static BatchStats runBatch(int games, int maxRounds, int threads, long seed) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<BatchStats>> parts = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int first = t;
+                parts.add(pool.submit(() -> {
+                    BatchStats local = new BatchStats(4);
+                    for (int g = first; g < games; g += threads) {
+                        local.record(playGame(maxRounds, gameSeed(seed, g)));
+                    }
+                    return local;
+                }));
+            }
+
+            BatchStats total = new BatchStats(4);
+            for (Future<BatchStats> part : parts) {
+                total.merge(part.get());
+            }
+            return total;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // One full game, set up the same way as Catan.main but silent. The dice, each
+    // player and the opening draft get their own stream split from the game's seed.
+    static GameResult playGame(int maxRounds, long seed) {
+        SplittableRandom gameRandom = new SplittableRandom(seed);
+        Board board = new Board();
+        List<Player> players = Catan.createPlayers();
+        Dice dice = new Dice(gameRandom.split());
+        for (Player player : players) {
+            player.setRandom(gameRandom.split());
+        }
+        Catan.placeStartingSettlements(board, players, gameRandom.split());
+
+        Turn turn = new Turn(dice, new Production(board), board, NoOpEventSink.INSTANCE);
+        return new Simulator(players, turn, maxRounds, NoOpEventSink.INSTANCE).runGame();
+    }
+
+    // Seed for game number gameIndex (SplitMix64 mix of the master seed and the index).
+    static long gameSeed(long masterSeed, long gameIndex) {
+        long z = masterSeed + (gameIndex + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,55 @@
+// Running totals over many games. Each worker thread fills its own copy and they are merged at the end.
+final class BatchStats {
+    private final int seats;
+    private long games;
+    private long gamesWithWinner;
+    private final long[] winsBySeat;
+    private long roundsToWin;
+    private final long[] victoryPointsBySeat;
+
+    public BatchStats(int seats) {
+        this.seats = seats;
+        winsBySeat = new long[seats];
+        victoryPointsBySeat = new long[seats];
+    }
+
+    public void record(GameResult result) {
+        games++;
+        if (result.hasWinner()) {
+            gamesWithWinner++;
+            winsBySeat[result.getWinnerSeat()]++;
+            roundsToWin += result.getRounds();
+        }
+        int[] finalVictoryPoints = result.getFinalVictoryPoints();
+        for (int seat = 0; seat < seats; seat++) {
+            victoryPointsBySeat[seat] += finalVictoryPoints[seat];
+        }
+    }
+
+    public void merge(BatchStats other) {
+        games += other.games;
+        gamesWithWinner += other.gamesWithWinner;
+        roundsToWin += other.roundsToWin;
+        for (int seat = 0; seat < seats; seat++) {
+            winsBySeat[seat] += other.winsBySeat[seat];
+            victoryPointsBySeat[seat] += other.victoryPointsBySeat[seat];
+        }
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public String summary() {
+        StringBuilder out = new StringBuilder();
+        out.append("Games: ").append(games).append(", with a winner: ").append(gamesWithWinner).append('\n');
+        if (gamesWithWinner > 0) {
+            out.append(String.format("Average rounds to win: %.2f%n", (double) roundsToWin / gamesWithWinner));
+        }
+        for (int seat = 0; seat < seats; seat++) {
+            out.append(String.format("Seat %d: wins %d (%.2f%%), average final VP %.2f%n", seat + 1, winsBySeat[seat],
+                    games == 0 ? 0.0 : 100.0 * winsBySeat[seat] / games, games == 0 ? 0.0 : (double) victoryPointsBySeat[seat] / games));
+        }
+        return out.toString();
+    }
+}
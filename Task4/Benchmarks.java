@@ -0,0 +1,332 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+// Micro benchmarks for the hot paths (adjacency, road checks, spatial queries, production, action choice, MCTS
+// playouts, expectimax decisions, rollout engine games) on early/mid/late boards, whole games per second, Longest
+// Road updates on worst-case road networks, and scaling runs (including opening picks) on generated maps from radius
+// 3 to 50. Each benchmark warms up, then runs timed iterations and reports ops/second with a 99.9% error margin.
+// Results are written as JSON in the same shape JMH uses, so runs from different commits can be compared with the
+// usual JMH tools.
+// Usage: java Benchmarks.java [output.json] [name filter]
+class Benchmarks {
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASURE_ITERATIONS = 5;
+    private static final long ITERATION_NANOS = 1_000_000_000L;
+    private static final long SEED = 2026;
+
+    // Rounds played before measuring, for each named board state.
+    private static final String[] STATES = { "early", "mid", "late" };
+    private static final int[] STATE_ROUNDS = { 0, 20, 80 };
+    // 2^14 slots, enough for a depth-2 search.
+    private static final int EXPECTIMAX_TABLE_BITS = 14;
+    // Round cap for rollout engine games, the same as the Simulator.runGame benchmark.
+    private static final int ROLLOUT_ROUNDS = 100;
+    // Road network shapes for the Longest Road benchmarks, all 15 roads (a player's full supply).
+    private static final String[] ROAD_SHAPES = { "snake", "dense" };
+    private static final int NETWORK_ROADS = 15;
+    // Generated map sizes for the scaling benchmarks.
+    private static final int[] SCALING_RADII = { 3, 5, 10, 20, 35, 50 };
+
+    // One operation. Returns something derived from the work so the JIT cannot drop it.
+    interface Op {
+        long run(int i);
+    }
+
+    // Builds the state an op works on. Called again before every iteration so ops that change the board do not drift.
+    interface Setup {
+        Op create(GameState state);
+    }
+
+    // A board part-way through a seeded game.
+    static final class GameState {
+        final Board board;
+        final List<Player> players;
+        final Production production;
+        final GameRules rules = new GameRules();
+
+        GameState(BoardTopology topology, int rounds) {
+            SplittableRandom random = new SplittableRandom(SEED);
+            board = new Board(topology);
+            players = Catan.createPlayers();
+            if (topology == BoardTopology.STANDARD) {
+                Catan.placeStartingSettlements(board, players, random.split());
+            } else {
+                // Generated maps: two settlements each on random open corners.
+                MoveGenerator moves = board.getMoveGenerator();
+                for (int settlement = 0; settlement < 2; settlement++) {
+                    for (Player player : players) {
+                        int spot = moves.settlementSpot(player, random.nextInt(moves.settlementSpotCount(player)));
+                        board.placeSettlement(board.getIntersection(spot), player);
+                        player.addVictoryPoint();
+                    }
+                }
+            }
+            for (Player player : players) {
+                player.setRandom(random.split());
+            }
+            production = new Production(board);
+            Turn turn = new Turn(new Dice(random.split()), production, board, NoOpEventSink.INSTANCE);
+            if (rounds > 0) {
+                new Simulator(players, turn, rounds, NoOpEventSink.INSTANCE).runGame();
+            }
+        }
+    }
+
+    private static long blackhole;
+
+    public static void main(String[] args) throws IOException {
+        Path output = Path.of(args.length > 0 ? args[0] : "bench-results.json");
+        String filter = args.length > 1 ? args[1] : "";
+
+        List<String> results = new ArrayList<>();
+        for (int s = 0; s < STATES.length; s++) {
+            int rounds = STATE_ROUNDS[s];
+            String state = STATES[s];
+
+            run(results, filter, "Board.isValidEdge", state, rounds, g -> i -> g.board.isValidEdge(i % 54, (i * 7) % 54) ? 1 : 0);
+            run(results, filter, "Board.getNeighbouringIntersections", state, rounds, g -> i -> g.board.getNeighbouringIntersections(i % 54).size());
+            run(results, filter, "GameRules.checkRoadPlacement", state, rounds, g -> {
+                Edge[] edges = allEdges(g.board);
+                return i -> g.rules.checkRoadPlacement(edges[i % edges.length], g.players.get(i & 3), g.board) ? 1 : 0;
+            });
+            run(results, filter, "Production.generateResources", state, rounds, g -> i -> {
+                g.production.generateResources(2 + i % 11);
+                return g.players.get(0).getTotalResources();
+            });
+            run(results, filter, "Board.distanceToNetwork", state, rounds, g -> i -> g.board.distanceToNetwork(g.players.get(i & 3), i % 54));
+            run(results, filter, "Board.shortestRoadPath", state, rounds, g -> i -> {
+                int[] path = g.board.shortestRoadPath(g.players.get(i & 3), i % 54);
+                return path == null ? -1 : path.length;
+            });
+            run(results, filter, "Turn.playAction", state, rounds, g -> {
+                Turn turn = new Turn(new Dice(new SplittableRandom(SEED)), g.production, g.board, NoOpEventSink.INSTANCE);
+                return i -> turn.playAction(g.players, i & 3, i).getLocation();
+            });
+            // One MCTS playout (tree walk, expansion, random playout, undo) for the first player; ops/s is playouts/s.
+            run(results, filter, "MctsAgent.playout", state, rounds, g -> {
+                GameView view = new GameView(g.board);
+                view.set(g.players, 0, rounds);
+                MoveList moves = new MoveList();
+                moves.fill(g.board.getMoveGenerator(), g.players.get(0));
+                MctsAgent.Search search = MctsAgent.newSearch(view, moves, SEED);
+                return i -> {
+                    search.playout();
+                    return search.board.getZobristHash();
+                };
+            });
+            // A depth-2 expectimax decision for the first player, given three of every card so every kind of build
+            // is on the table; the table is cleared first so nothing carries over between ops.
+            run(results, filter, "ExpectimaxAgent.chooseMove", state, rounds, g -> {
+                Player player = g.players.get(0);
+                for (ResourceType resource : ResourceType.values()) {
+                    player.addResource(resource, 3);
+                }
+                GameView view = new GameView(g.board);
+                view.set(g.players, 0, rounds);
+                MoveList moves = new MoveList();
+                moves.fill(g.board.getMoveGenerator(), player);
+                TranspositionTable table = new TranspositionTable(EXPECTIMAX_TABLE_BITS);
+                ExpectimaxAgent agent = ExpectimaxAgent.fixedDepth(2, table);
+                return i -> {
+                    table.clear();
+                    return agent.chooseMove(view, moves);
+                };
+            });
+            // A whole game on the rollout engine from this board (reset, then random builds until someone wins or
+            // the round cap), on one thread; ops/s is games/s per core.
+            run(results, filter, "RolloutEngine.playGame", state, rounds, g -> {
+                RolloutEngine engine = new RolloutEngine(g.board.getTopology());
+                engine.load(g.board, g.players, 0);
+                SplittableRandom random = new SplittableRandom(SEED);
+                return i -> {
+                    engine.reset();
+                    return engine.play(random, ROLLOUT_ROUNDS * g.players.size(), false);
+                };
+            });
+        }
+
+        run(results, filter, "Simulator.runGame", "full", 0, g -> i -> BatchRunner.playGame(100, BatchRunner.gameSeed(SEED, i)).getRounds());
+
+        // Longest Road on adversarial networks: adding and taking back a road (the incremental path), and a building
+        // change on one of the network's corners (recomputes the components there from scratch).
+        for (String shape : ROAD_SHAPES) {
+            run(results, filter, "LongestRoad.makeUnmakeRoad", shape, () -> roadNetwork(shape), g -> {
+                Player player = g.players.get(0);
+                MoveStack stack = new MoveStack(g.board);
+                MoveGenerator moves = g.board.getMoveGenerator();
+                return i -> {
+                    stack.makeRoad(player, moves.road(player, i % moves.roadCount(player)));
+                    stack.unmake();
+                    return g.board.getLongestRoad().getLength(player);
+                };
+            });
+            run(results, filter, "LongestRoad.cornerChanged", shape, () -> roadNetwork(shape), g -> {
+                Player player = g.players.get(0);
+                BoardAdjacency adjacency = g.board.getAdjacency();
+                int[] corners = new int[NETWORK_ROADS];
+                int count = 0;
+                for (int e = 0; e < adjacency.getEdgeCount() && count < corners.length; e++) {
+                    if (g.board.getEdgeOwner(e) == player) {
+                        corners[count++] = adjacency.edgeEnd(e);
+                    }
+                }
+                int networkCorners = count;
+                return i -> {
+                    g.board.getLongestRoad().cornerChanged(corners[i % networkCorners]);
+                    return g.board.getLongestRoad().getLength(player);
+                };
+            });
+        }
+
+        // Scaling on generated maps: per-op cost should stay flat (turn) or grow
+        // linearly with map size (building the topology or a board).
+        for (int radius : SCALING_RADII) {
+            BoardTopology topology = HexMapGenerator.hexagon(radius, SEED);
+            String state = "radius" + radius;
+            run(results, filter, "Scaling.HexMapGenerator.hexagon", state, () -> null, g -> i -> HexMapGenerator.hexagon(radius, i).getNodeCount());
+            run(results, filter, "Scaling.newBoard", state, () -> null, g -> i -> new Board(topology).getAdjacency().getEdgeCount());
+            // One opening pick: scoring every open corner for a player with no settlements yet.
+            run(results, filter, "Scaling.OpeningDraft.bestSpot", state, () -> new GameState(topology, 0), g -> {
+                OpeningDraft draft = new OpeningDraft(PlacementScorer.BALANCED);
+                Player player = Catan.createPlayers().get(0);
+                int[] heldPips = new int[CornerValues.RESOURCES];
+                SplittableRandom random = new SplittableRandom(SEED);
+                return i -> draft.bestSpot(g.board, player, heldPips, random);
+            });
+            run(results, filter, "Scaling.Turn.execute", state, () -> new GameState(topology, 0), g -> {
+                Turn turn = new Turn(new Dice(new SplittableRandom(SEED)), g.production, g.board, NoOpEventSink.INSTANCE);
+                return i -> {
+                    Player player = g.players.get(i & 3);
+                    turn.execute(g.players, i & 3, i);
+                    return player.getTotalResources();
+                };
+            });
+        }
+
+        Files.writeString(output, "[\n" + String.join(",\n", results) + "\n]\n");
+        System.out.println("Wrote " + results.size() + " results to " + output + " (checksum " + blackhole + ")");
+    }
+
+    // Early board where the first player has grown NETWORK_ROADS roads and has cards for plenty more. "snake" keeps
+    // extending the newest end into fresh corners (one long trail); "dense" prefers roads that close a loop, which
+    // gives the trail search the most branches to try.
+    private static GameState roadNetwork(String shape) {
+        GameState g = new GameState(BoardTopology.STANDARD, 0);
+        Player player = g.players.get(0);
+        player.getHand().add(ResourceType.Wood, 1_000_000);
+        player.getHand().add(ResourceType.Brick, 1_000_000);
+        BoardAdjacency adjacency = g.board.getAdjacency();
+        MoveGenerator moves = g.board.getMoveGenerator();
+        int tip = player.getPlayerSettlements().get(0).getBuildlocation().getIntersectionLocation();
+
+        for (int built = 0; built < NETWORK_ROADS && moves.roadCount(player) > 0; built++) {
+            int choice = moves.road(player, 0);
+            for (int k = 0; k < moves.roadCount(player); k++) {
+                int edgeID = moves.road(player, k);
+                boolean startOwned = hasRoadAt(g.board, adjacency.edgeStart(edgeID), player);
+                boolean endOwned = hasRoadAt(g.board, adjacency.edgeEnd(edgeID), player);
+                if (shape.equals("dense") ? startOwned && endOwned
+                        : (adjacency.edgeStart(edgeID) == tip && !endOwned) || (adjacency.edgeEnd(edgeID) == tip && !startOwned)) {
+                    choice = edgeID;
+                    break;
+                }
+            }
+            g.board.placeRoad(choice, player);
+            tip = adjacency.edgeStart(choice) == tip ? adjacency.edgeEnd(choice) : adjacency.edgeStart(choice);
+        }
+        return g;
+    }
+
+    private static boolean hasRoadAt(Board board, int corner, Player player) {
+        BoardAdjacency adjacency = board.getAdjacency();
+        for (int k = 0; k < adjacency.degree(corner); k++) {
+            if (board.getEdgeOwner(adjacency.neighbourEdge(corner, k)) == player) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Edge[] allEdges(Board board) {
+        BoardAdjacency adjacency = board.getAdjacency();
+        Edge[] edges = new Edge[adjacency.getEdgeCount()];
+        for (int e = 0; e < edges.length; e++) {
+            edges[e] = new Edge(adjacency.edgeStart(e), adjacency.edgeEnd(e));
+        }
+        return edges;
+    }
+
+    private static void run(List<String> results, String filter, String name, String state, int rounds, Setup setup) {
+        run(results, filter, name, state, () -> new GameState(BoardTopology.STANDARD, rounds), setup);
+    }
+
+    private static void run(List<String> results, String filter, String name, String state, Supplier<GameState> fresh, Setup setup) {
+        if (!name.contains(filter)) {
+            return;
+        }
+        for (int w = 0; w < WARMUP_ITERATIONS; w++) {
+            iteration(setup.create(fresh.get()));
+        }
+        double[] scores = new double[MEASURE_ITERATIONS];
+        for (int m = 0; m < MEASURE_ITERATIONS; m++) {
+            scores[m] = iteration(setup.create(fresh.get()));
+        }
+
+        double mean = 0;
+        for (double score : scores) {
+            mean += score;
+        }
+        mean /= scores.length;
+        double variance = 0;
+        for (double score : scores) {
+            variance += (score - mean) * (score - mean);
+        }
+        // t(0.9995, n - 1) for n = 5, same confidence level JMH reports.
+        double error = 8.610 * Math.sqrt(variance / (scores.length - 1)) / Math.sqrt(scores.length);
+
+        System.out.printf("%-40s %-6s %,16.1f +- %,.1f ops/s%n", name, state, mean, error);
+        results.add(toJson(name, state, mean, error, scores));
+    }
+
+    // Runs the op in batches until the iteration time is up. Returns ops/second.
+    private static double iteration(Op op) {
+        long ops = 0;
+        long checksum = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            for (int b = 0; b < 256; b++) {
+                checksum += op.run((int) ops++);
+            }
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < ITERATION_NANOS);
+        blackhole += checksum;
+        return ops * 1e9 / elapsed;
+    }
+
+    private static String toJson(String name, String state, double score, double error, double[] raw) {
+        StringBuilder rawData = new StringBuilder();
+        for (int i = 0; i < raw.length; i++) {
+            rawData.append(i == 0 ? "" : ", ").append(raw[i]);
+        }
+        return "  {\n"
+                + "    \"benchmark\": \"" + name + "\",\n"
+                + "    \"mode\": \"thrpt\",\n"
+                + "    \"threads\": 1,\n"
+                + "    \"warmupIterations\": " + WARMUP_ITERATIONS + ",\n"
+                + "    \"measurementIterations\": " + MEASURE_ITERATIONS + ",\n"
+                + "    \"params\": { \"state\": \"" + state + "\" },\n"
+                + "    \"primaryMetric\": {\n"
+                + "      \"score\": " + score + ",\n"
+                + "      \"scoreError\": " + error + ",\n"
+                + "      \"scoreUnit\": \"ops/s\",\n"
+                + "      \"rawData\": [[" + rawData + "]]\n"
+                + "    }\n"
+                + "  }";
+    }
+}
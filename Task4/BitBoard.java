@@ -0,0 +1,116 @@
+import java.util.Arrays;
+
+// Buildings and roads as bit masks: corner i is bit i of a long, edge e is bit e of a pair of longs (low word for
+// edges 0-63, high word for 64-127). Board keeps it in step with the Intersection/Road objects so placement rules
+// come down to a few AND/OR operations. Players are indexed by their seat on the board (see PlayerSeats).
+final class BitBoard {
+    private final BoardAdjacency adjacency;
+    private final PlayerSeats seats;
+    private long[] settlements = new long[4];
+    private long[] cities = new long[4];
+    private long[] roadsLow = new long[4];
+    private long[] roadsHigh = new long[4];
+    private long occupied;
+
+    public BitBoard(BoardAdjacency adjacency, PlayerSeats seats) {
+        this.adjacency = adjacency;
+        this.seats = seats;
+    }
+
+    public void placeSettlement(int intersectionID, Player player) {
+        clearCorner(intersectionID);
+        settlements[seatOf(player, true)] |= 1L << intersectionID;
+        occupied |= 1L << intersectionID;
+    }
+
+    public void placeCity(int intersectionID, Player player) {
+        clearCorner(intersectionID);
+        cities[seatOf(player, true)] |= 1L << intersectionID;
+        occupied |= 1L << intersectionID;
+    }
+
+    public void placeRoad(int edgeID, Player player) {
+        int seat = seatOf(player, true);
+        if (edgeID < 64) {
+            roadsLow[seat] |= 1L << edgeID;
+        } else {
+            roadsHigh[seat] |= 1L << (edgeID - 64);
+        }
+    }
+
+    public void removeBuilding(int intersectionID) {
+        clearCorner(intersectionID);
+    }
+
+    public void removeRoad(int edgeID, Player player) {
+        int seat = seatOf(player, false);
+        if (edgeID < 64) {
+            roadsLow[seat] &= ~(1L << edgeID);
+        } else {
+            roadsHigh[seat] &= ~(1L << (edgeID - 64));
+        }
+    }
+
+    // Corner and all its neighbours are empty (distance rule).
+    public boolean isDistanceRuleClear(int intersectionID) {
+        return (occupied & ((1L << intersectionID) | adjacency.neighbourMask(intersectionID))) == 0;
+    }
+
+    // Player has a road ending at this corner.
+    public boolean touchesRoad(int intersectionID, Player player) {
+        int seat = seatOf(player, false);
+        if (seat < 0) {
+            return false;
+        }
+        return ((roadsLow[seat] & adjacency.incidentEdgesLow(intersectionID)) | (roadsHigh[seat] & adjacency.incidentEdgesHigh(intersectionID))) != 0;
+    }
+
+    public long getOccupied() {
+        return occupied;
+    }
+
+    public long getSettlements(Player player) {
+        int seat = seatOf(player, false);
+        return seat < 0 ? 0 : settlements[seat];
+    }
+
+    public long getCities(Player player) {
+        int seat = seatOf(player, false);
+        return seat < 0 ? 0 : cities[seat];
+    }
+
+    public long getRoadsLow(Player player) {
+        int seat = seatOf(player, false);
+        return seat < 0 ? 0 : roadsLow[seat];
+    }
+
+    public long getRoadsHigh(Player player) {
+        int seat = seatOf(player, false);
+        return seat < 0 ? 0 : roadsHigh[seat];
+    }
+
+    // A building can replace another one on the same corner, so drop whatever was there first.
+    private void clearCorner(int intersectionID) {
+        long keep = ~(1L << intersectionID);
+        for (int seat = 0; seat < settlements.length; seat++) {
+            settlements[seat] &= keep;
+            cities[seat] &= keep;
+        }
+        occupied &= keep;
+    }
+
+    private int seatOf(Player player, boolean create) {
+        if (!create) {
+            return seats.find(player);
+        }
+        int seat = seats.register(player);
+        if (seat >= settlements.length) {
+            int size = settlements.length * 2;
+            settlements = Arrays.copyOf(settlements, size);
+            cities = Arrays.copyOf(cities, size);
+            roadsLow = Arrays.copyOf(roadsLow, size);
+            roadsHigh = Arrays.copyOf(roadsHigh, size);
+        }
+        return seat;
+    }
+}
@@ -1,165 +1,355 @@
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.BitSet;
 import java.util.List;
 
 // The map: 54 corners (intersections), 19 hexes with resources and numbers. Tracks where buildings and roads are.
+// The fixed geometry lives in a BoardTopology shared by every board on the same map; a Board only holds what
+// changes during a game (buildings, roads and the indexes kept from them).
 class Board {
-    private int[][] tilesNodes = { 
-        { 41, 42, 40, 18, 17, 39 }, { 40, 44, 43, 21, 16, 18 }, { 43, 45, 47, 46, 19, 21 },
-        { 38, 39, 17, 15, 14, 37 }, { 17, 18, 16, 5, 4, 15 }, { 16, 21, 19, 20, 0, 5 },
-        { 19, 46, 48, 49, 22, 20 }, { 36, 37, 14, 13, 32, 35 }, { 14, 15, 4, 3, 12, 13 },
-        { 4, 5, 0, 1, 2, 3 }, { 0, 20, 22, 23, 6, 1 }, { 22, 49, 50, 51, 52, 23 },
-        { 34, 13, 12, 11, 32, 33 }, { 12, 3, 2, 9, 10, 11 }, { 2, 1, 6, 7, 8, 9 },
-        { 6, 23, 52, 53, 24, 7 }, { 32, 11, 10, 29, 30, 31 }, { 10, 9, 8, 27, 28, 29 },
-        { 8, 7, 24, 25, 26, 27 } 
-    };
-
-    private Map<Integer, Intersection> intersections;
-    private Map<Integer, HexTerrain> tiles;
-    private List<int[]> builtEdges = new ArrayList<>();
-    private GameRules rules = new GameRules();
+    // Placement rules keep no state, so one copy serves every board.
+    private static final GameRules RULES = new GameRules();
 
-    public Board() {
-        intersections = new HashMap<>();
-        for (int i = 0; i <= 53; i++) {
-            intersections.put(i, new Intersection(i));
-        }
-
-        tiles = new HashMap<>();
+    private final BoardTopology topology;
+    private final BoardAdjacency adjacency;
+    private final Intersection[] intersections;
+    // Roads are indexed by edge ID: a bit per built edge plus who owns it.
+    private final BitSet builtEdges;
+    private final Player[] edgeOwners;
+    private final PlayerSeats seats = new PlayerSeats();
+    private final BitBoard bits;
+    private final ProductionTable production;
+    private final MoveGenerator moves;
+    private final RoadNetwork roadNetwork;
+    private final LongestRoad longestRoad;
+    // Built on the first spatial query; needs the map's hop distance table, which large maps may not have.
+    private SpatialQueries spatial;
+    private long zobrist;
 
-        ResourceType[] resources = {
-            ResourceType.Wood, ResourceType.Wood, ResourceType.Wood, ResourceType.Wood,
-            ResourceType.Brick, ResourceType.Brick, ResourceType.Brick,
-            ResourceType.Wheat, ResourceType.Wheat, ResourceType.Wheat, ResourceType.Wheat,
-            ResourceType.Sheep, ResourceType.Sheep, ResourceType.Sheep, ResourceType.Sheep,
-            ResourceType.Ore, ResourceType.Ore, ResourceType.Ore
-        };
-
-        int[] numbers = { 2, 3, 3, 4, 4, 5, 5, 6, 6, 8, 8, 9, 9, 10, 10, 11, 11, 12 };
+    public Board() {
+        this(BoardTopology.STANDARD);
+    }
 
-        tiles.put(9, new DesertHex(9));
+    public Board(BoardTopology topology) {
+        this.topology = topology;
+        this.adjacency = topology.getAdjacency();
 
-        int resourceIndex = 0;
-        for (int i = 0; i < 19; i++) {
-            if (i == 9) {
-                continue;
-            }
-            tiles.put(i, new ResourceHex(i, new HexBoardNum(numbers[resourceIndex]), resources[resourceIndex]));
-            resourceIndex++;
+        intersections = new Intersection[topology.getNodeCount()];
+        for (int i = 0; i < intersections.length; i++) {
+            intersections[i] = new Intersection(i);
         }
+
+        builtEdges = new BitSet(adjacency.getEdgeCount());
+        edgeOwners = new Player[adjacency.getEdgeCount()];
+        // Bit masks only fit maps up to 64 corners / 128 edges; bigger generated maps go without.
+        bits = adjacency.supportsBitMasks() ? new BitBoard(adjacency, seats) : null;
+        production = new ProductionTable(topology);
+        roadNetwork = new RoadNetwork(adjacency, seats);
+        moves = new MoveGenerator(this, seats, RULES);
+        longestRoad = new LongestRoad(this, seats);
     }
 
     // True if the two corners are next to each other on the hex map (share an
     // edge).
     public boolean isValidEdge(int start, int end) {
-        for (int i = 0; i < 19; i++) {
-            for (int j = 0; j < 6; j++) {
-                if (j < 5) {
-                    if ((tilesNodes[i][j] == start && tilesNodes[i][j + 1] == end) || (tilesNodes[i][j] == end && tilesNodes[i][j + 1] == start)) {
-                        return true;
-                    }
-                }
-                
-                if ((tilesNodes[i][0] == start && tilesNodes[i][5] == end) || (tilesNodes[i][0] == end && tilesNodes[i][5] == start)) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return adjacency.isAdjacent(start, end);
     }
 
     // All corners that are one edge away from this corner.
     public List<Integer> getNeighbouringIntersections(int intersectionID) {
         List<Integer> neighbours = new ArrayList<>();
 
-        for (int i = 0; i <= 53; i++) {
-            if (i == intersectionID) {
-                continue;
-            }
-
-            if (isValidEdge(intersectionID, i)) {
-                neighbours.add(i);
-            }
+        for (int k = 0; k < adjacency.degree(intersectionID); k++) {
+            neighbours.add(adjacency.neighbour(intersectionID, k));
         }
 
         return neighbours;
     }
 
+    // Edges on the shortest route between two corners, ignoring what is built.
+    public int getDistance(int start, int end) {
+        return getSpatialQueries().getDistances().distance(start, end);
+    }
+
+    // All corners at most k edges away (the corner itself included), nearest first.
+    public List<Integer> getIntersectionsWithin(int intersectionID, int k) {
+        HopDistances distances = getSpatialQueries().getDistances();
+        List<Integer> corners = new ArrayList<>();
+
+        for (int i = 0; i < distances.countWithin(intersectionID, k); i++) {
+            corners.add(distances.nearest(intersectionID, i));
+        }
+
+        return corners;
+    }
+
+    // Hops from the player's buildings and roads to the corner (0 if on them), -1 if they have none.
+    public int distanceToNetwork(Player player, int intersectionID) {
+        return getSpatialQueries().distanceToNetwork(player, intersectionID);
+    }
+
+    // Closest empty corner to this one where the player may settle right now, or -1.
+    public int nearestSettlementSpot(Player player, int intersectionID) {
+        return getSpatialQueries().nearestSettlementSpot(player, intersectionID);
+    }
+
+    // Fewest roads (edge IDs in build order) the player needs to reach the corner; empty if already there, null
+    // if it cannot be reached.
+    public int[] shortestRoadPath(Player player, int intersectionID) {
+        return getSpatialQueries().shortestRoadPath(player, intersectionID);
+    }
+
+    public SpatialQueries getSpatialQueries() {
+        if (spatial == null) {
+            spatial = new SpatialQueries(this);
+        }
+        return spatial;
+    }
+
+    public BoardTopology getTopology() {
+        return topology;
+    }
+
+    public BoardAdjacency getAdjacency() {
+        return adjacency;
+    }
+
+    // Roll number -> payouts for the buildings on hexes with that number.
+    public ProductionTable getProductionTable() {
+        return production;
+    }
+
+    // Legal settlement/city/road spots per player, updated by the place methods below.
+    public MoveGenerator getMoveGenerator() {
+        return moves;
+    }
+
+    // Which corners each player's roads touch and which they join, updated by the road methods below.
+    public RoadNetwork getRoadNetwork() {
+        return roadNetwork;
+    }
+
+    // Road lengths and who holds Longest Road, updated by the place methods below.
+    public LongestRoad getLongestRoad() {
+        return longestRoad;
+    }
+
+    // Bit mask copy of the buildings and roads, updated by the place methods below.
+    // Null on maps too big for 64-bit masks.
+    public BitBoard getBitBoard() {
+        return bits;
+    }
+
     public Intersection getIntersection(int intersectionID) {
-        return intersections.get(intersectionID);
+        if (intersectionID < 0 || intersectionID >= intersections.length) {
+            return null;
+        }
+        return intersections[intersectionID];
     }
 
     // Ok if spot is empty and no neighbour has a building (and player has < 2), or
-    // if spot is connected by player's road.
+    // if spot is empty and connected by player's road. Never on top of a building.
     public boolean placeSettlement(Intersection placeIntersection, Player player) {
-        if (rules.checkEmptyIntersections(placeIntersection.getIntersectionLocation(), this)) {
+        if (placeIntersection.getBuilding() != null) {
+            return false;
+        }
+        if (RULES.checkEmptyIntersections(placeIntersection.getIntersectionLocation(), this)) {
             if (player.getPlayerSettlements().size() < 2) {
-                Settlement settlement = new Settlement(placeIntersection, player);
-                placeIntersection.setBuilding(settlement);
-                placeIntersection.setOwner(player);
-                player.getPlayerSettlements().add(settlement);
+                addSettlement(placeIntersection, player);
                 return true;
             }
         } else {
-            if (rules.isConnected(placeIntersection.getIntersectionLocation(), player, this)) {
-                Settlement settlement = new Settlement(placeIntersection, player);
-                placeIntersection.setBuilding(settlement);
-                placeIntersection.setOwner(player);
-                player.getPlayerSettlements().add(settlement);
+            if (RULES.isConnected(placeIntersection.getIntersectionLocation(), player, this)) {
+                addSettlement(placeIntersection, player);
                 return true;
             }
         }
         return false;
     }
 
+    private void addSettlement(Intersection placeIntersection, Player player) {
+        Settlement settlement = new Settlement(placeIntersection, player);
+        player.getPlayerSettlements().add(settlement);
+        setBuilding(placeIntersection, settlement);
+    }
+
     // Only works if there is your settlement there; replaces it with a city.
     public boolean placeCity(Intersection placeIntersection, Player player) {
         Building existing = placeIntersection.getBuilding();
         if (existing instanceof Settlement && existing.getOwner() == player) {
-            City city = new City(placeIntersection, player);
-            placeIntersection.setBuilding(city);
+            setBuilding(placeIntersection, new City(placeIntersection, player));
             return true;
         }
         return false;
     }
 
-    public boolean isEdgeOccupied(int start, int end) {
-        for (int[] edge : builtEdges) {
-            if ((edge[0] == start && edge[1] == end) || (edge[0] == end && edge[1] == start)) {
-                return true;
+    // Takes back the most recent settlement of this player at the corner and puts
+    // back whatever was there before (null if it was empty). Used by MoveStack.
+    void removeSettlement(Intersection intersection, Player player, Building previous) {
+        List<Settlement> settlements = player.getPlayerSettlements();
+        settlements.remove(settlements.size() - 1);
+        setBuilding(intersection, previous);
+    }
+
+    // Turns a city back into the settlement it replaced. Used by MoveStack.
+    void revertCity(Intersection intersection, Settlement previous) {
+        setBuilding(intersection, previous);
+    }
+
+    // Every building change goes through here so the bitboard, payout table, move
+    // generator, longest road and hash stay in step with the intersection.
+    private void setBuilding(Intersection intersection, Building building) {
+        int intersectionID = intersection.getIntersectionLocation();
+        zobrist ^= buildingKey(intersection.getBuilding()) ^ buildingKey(building);
+        intersection.setBuilding(building);
+        if (building == null) {
+            intersection.setOwner(null);
+            if (bits != null) {
+                bits.removeBuilding(intersectionID);
+            }
+            production.removeBuilding(intersectionID);
+        } else {
+            Player owner = building.getOwner();
+            intersection.setOwner(owner);
+            if (bits != null && building instanceof City) {
+                bits.placeCity(intersectionID, owner);
+            } else if (bits != null) {
+                bits.placeSettlement(intersectionID, owner);
             }
+            production.setBuilding(intersectionID, owner, building.getResourceYield());
         }
-        return false;
+        moves.cornerChanged(intersectionID);
+        longestRoad.cornerChanged(intersectionID);
+    }
+
+    private static long buildingKey(Building building) {
+        if (building == null) {
+            return 0;
+        }
+        return Zobrist.building(building.getBuildlocation().getIntersectionLocation(), building.getOwner().getPlayerID(), building instanceof City);
+    }
+
+    // XOR of the Zobrist keys of every building and road (hands, VP, the Longest Road
+    // holder and the player to move are added by Zobrist.position).
+    public long getZobristHash() {
+        return zobrist;
+    }
+
+    public boolean isEdgeOccupied(int start, int end) {
+        int edgeID = adjacency.edgeId(start, end);
+        return edgeID >= 0 && builtEdges.get(edgeID);
+    }
+
+    public boolean isEdgeOccupied(int edgeID) {
+        return builtEdges.get(edgeID);
+    }
+
+    // Owner of the road on this edge, or null if nothing is built there.
+    public Player getEdgeOwner(int edgeID) {
+        return edgeOwners[edgeID];
     }
 
     // Road must be on a valid edge, not taken, and next to your building or your
     // road.
     public boolean placeRoad(Edge placeEdge, Player player) {
-        if (rules.checkRoadPlacement(placeEdge, player, this)) {
-            Road road = new Road(player, placeEdge);
-            player.getPlayerRoads().add(road);
-            builtEdges.add(new int[] { placeEdge.getStart(), placeEdge.getEnd() });
-            return true;
+        int edgeID = adjacency.edgeId(placeEdge.getStart(), placeEdge.getEnd());
+        if (edgeID < 0 || !RULES.checkRoadPlacement(edgeID, player, this)) {
+            return false;
         }
-        return false;
+        addRoad(edgeID, placeEdge, player);
+        return true;
+    }
+
+    // Same as placeRoad(Edge, Player) but by edge ID; only makes an Edge if the road is actually built.
+    public boolean placeRoad(int edgeID, Player player) {
+        if (!RULES.checkRoadPlacement(edgeID, player, this)) {
+            return false;
+        }
+        addRoad(edgeID, new Edge(adjacency.edgeStart(edgeID), adjacency.edgeEnd(edgeID)), player);
+        return true;
+    }
+
+    private void addRoad(int edgeID, Edge location, Player player) {
+        player.getPlayerRoads().add(new Road(player, location));
+        builtEdges.set(edgeID);
+        edgeOwners[edgeID] = player;
+        zobrist ^= Zobrist.road(edgeID, player.getPlayerID());
+        roadNetwork.roadAdded(edgeID, player);
+        if (bits != null) {
+            bits.placeRoad(edgeID, player);
+        }
+        moves.edgeChanged(edgeID);
+        longestRoad.roadAdded(edgeID);
+    }
+
+    // Takes back the player's most recent road. Used by MoveStack.
+    void removeRoad(int edgeID, Player player) {
+        List<Road> roads = player.getPlayerRoads();
+        roads.remove(roads.size() - 1);
+        builtEdges.clear(edgeID);
+        edgeOwners[edgeID] = null;
+        zobrist ^= Zobrist.road(edgeID, player.getPlayerID());
+        roadNetwork.roadRemoved(edgeID, player);
+        if (bits != null) {
+            bits.removeRoad(edgeID, player);
+        }
+        moves.edgeChanged(edgeID);
+        longestRoad.roadRemoved(edgeID, player);
+    }
+
+    // Puts the source board's buildings, roads and Longest Road holder on this empty board, owned by to[i] wherever
+    // the source has from[i]. No placement rules are checked (the position was legal on the source). Settlement lists
+    // are copied in order, since their count decides whether a player may settle away from their roads. Roads go down
+    // in each player's build order so they can still be taken back newest first. Used by GameCopy.
+    void copyPosition(Board source, Player[] from, Player[] to) {
+        for (int i = 0; i < from.length; i++) {
+            for (Settlement settlement : from[i].getPlayerSettlements()) {
+                addSettlement(intersections[settlement.getBuildlocation().getIntersectionLocation()], to[i]);
+            }
+        }
+        for (int id = 0; id < intersections.length; id++) {
+            Building building = source.intersections[id].getBuilding();
+            if (building instanceof City) {
+                Player owner = to[indexOf(from, building.getOwner())];
+                City city = new City(intersections[id], owner);
+                owner.getPlayerCities().add(city);
+                setBuilding(intersections[id], city);
+            }
+        }
+        for (int i = 0; i < from.length; i++) {
+            for (Road road : from[i].getPlayerRoads()) {
+                Edge location = road.getLocation();
+                int edgeID = adjacency.edgeId(location.getStart(), location.getEnd());
+                addRoad(edgeID, new Edge(location.getStart(), location.getEnd()), to[i]);
+            }
+        }
+        Player holder = source.longestRoad.getHolder();
+        longestRoad.restoreHolder(holder == null ? null : to[indexOf(from, holder)]);
+    }
+
+    private static int indexOf(Player[] players, Player player) {
+        for (int i = 0; i < players.length; i++) {
+            if (players[i] == player) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Player " + player.getPlayerID() + " is not being copied");
     }
 
     public List<HexTerrain> getHexes() {
-        return new ArrayList<>(tiles.values());
+        return new ArrayList<>(topology.getHexes());
     }
 
     public HexTerrain getHex(int hexID) {
-        return tiles.get(hexID);
+        return topology.getHex(hexID);
     }
 
     public List<Integer> getHexIntersections(int hexID) {
         List<Integer> hexes = new ArrayList<>();
 
-        for (int hex : tilesNodes[hexID]) {
+        for (int hex : topology.getHexCorners(hexID)) {
             hexes.add(hex);
         }
 
         return hexes;
     }
-}
\ No newline at end of file
+}
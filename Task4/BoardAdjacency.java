@@ -0,0 +1,171 @@
+import java.util.Arrays;
+
+// Which corners share an edge, worked out once from the hex-to-corner table. Stored compressed-sparse-row style:
+// neighbours of corner i are neighbours[offsets[i]] .. neighbours[offsets[i + 1] - 1], sorted ascending.
+// Each hex side also gets a stable edge ID (numbered by lower corner, then higher corner) so roads can be kept in
+// flat arrays. Never changes after construction so every board (and every thread) can share one.
+final class BoardAdjacency {
+    private final int[] offsets;
+    private final int[] neighbours;
+    private final int[] slotEdges;
+    private final int[] edgeStarts;
+    private final int[] edgeEnds;
+    // Bit masks for BitBoard (corner i is bit i; edge e is bit e of the low word, or bit e - 64 of the high word).
+    private final long[] neighbourMasks;
+    private final long[] incidentEdgesLow;
+    private final long[] incidentEdgesHigh;
+
+    public BoardAdjacency(int[][] tilesNodes, int nodeCount) {
+        // Each corner has at most two sides per hex it sits on, so size a scratch
+        // row for that, collect the distinct neighbours, then sort and pack the rows.
+        // Linear in the map size, so very large generated maps are fine too.
+        int[] rowStart = new int[nodeCount + 1];
+        for (int[] tile : tilesNodes) {
+            for (int corner : tile) {
+                rowStart[corner + 1] += 2;
+            }
+        }
+        for (int i = 0; i < nodeCount; i++) {
+            rowStart[i + 1] += rowStart[i];
+        }
+        int[] scratch = new int[rowStart[nodeCount]];
+        int[] degree = new int[nodeCount];
+        for (int[] tile : tilesNodes) {
+            for (int j = 0; j < tile.length; j++) {
+                int a = tile[j];
+                int b = tile[(j + 1) % tile.length];
+                link(scratch, rowStart, degree, a, b);
+                link(scratch, rowStart, degree, b, a);
+            }
+        }
+
+        offsets = new int[nodeCount + 1];
+        for (int i = 0; i < nodeCount; i++) {
+            offsets[i + 1] = offsets[i] + degree[i];
+        }
+
+        neighbours = new int[offsets[nodeCount]];
+        for (int i = 0; i < nodeCount; i++) {
+            System.arraycopy(scratch, rowStart[i], neighbours, offsets[i], degree[i]);
+            Arrays.sort(neighbours, offsets[i], offsets[i + 1]);
+        }
+
+        // Number the edges from the lower corner's side; the higher corner's slot reuses that ID.
+        slotEdges = new int[neighbours.length];
+        int edgeCount = neighbours.length / 2;
+        edgeStarts = new int[edgeCount];
+        edgeEnds = new int[edgeCount];
+        int nextEdge = 0;
+        for (int i = 0; i < nodeCount; i++) {
+            for (int slot = offsets[i]; slot < offsets[i + 1]; slot++) {
+                int j = neighbours[slot];
+                if (j > i) {
+                    edgeStarts[nextEdge] = i;
+                    edgeEnds[nextEdge] = j;
+                    slotEdges[slot] = nextEdge++;
+                } else {
+                    slotEdges[slot] = edgeId(j, i);
+                }
+            }
+        }
+
+        if (nodeCount <= 64 && edgeCount <= 128) {
+            neighbourMasks = new long[nodeCount];
+            incidentEdgesLow = new long[nodeCount];
+            incidentEdgesHigh = new long[nodeCount];
+            for (int i = 0; i < nodeCount; i++) {
+                for (int slot = offsets[i]; slot < offsets[i + 1]; slot++) {
+                    neighbourMasks[i] |= 1L << neighbours[slot];
+                    if (slotEdges[slot] < 64) {
+                        incidentEdgesLow[i] |= 1L << slotEdges[slot];
+                    } else {
+                        incidentEdgesHigh[i] |= 1L << (slotEdges[slot] - 64);
+                    }
+                }
+            }
+        } else {
+            neighbourMasks = null;
+            incidentEdgesLow = null;
+            incidentEdgesHigh = null;
+        }
+    }
+
+    private static void link(int[] scratch, int[] rowStart, int[] degree, int from, int to) {
+        for (int i = rowStart[from]; i < rowStart[from] + degree[from]; i++) {
+            if (scratch[i] == to) {
+                return;
+            }
+        }
+        scratch[rowStart[from] + degree[from]++] = to;
+    }
+
+    public int getNodeCount() {
+        return offsets.length - 1;
+    }
+
+    public int degree(int node) {
+        return offsets[node + 1] - offsets[node];
+    }
+
+    // k-th neighbour of the corner (0 <= k < degree).
+    public int neighbour(int node, int k) {
+        return neighbours[offsets[node] + k];
+    }
+
+    // ID of the edge to the k-th neighbour of the corner.
+    public int neighbourEdge(int node, int k) {
+        return slotEdges[offsets[node] + k];
+    }
+
+    // True if the two corners share a hex side. At most 3 checks on a normal map.
+    public boolean isAdjacent(int start, int end) {
+        return edgeId(start, end) >= 0;
+    }
+
+    // Edge ID for the two corners (either order), or -1 if they do not share a hex side.
+    public int edgeId(int start, int end) {
+        if (start < 0 || start >= getNodeCount()) {
+            return -1;
+        }
+        for (int i = offsets[start]; i < offsets[start + 1]; i++) {
+            if (neighbours[i] == end) {
+                return slotEdges[i];
+            }
+        }
+        return -1;
+    }
+
+    public int getEdgeCount() {
+        return edgeStarts.length;
+    }
+
+    // Lower corner of the edge.
+    public int edgeStart(int edgeID) {
+        return edgeStarts[edgeID];
+    }
+
+    // Higher corner of the edge.
+    public int edgeEnd(int edgeID) {
+        return edgeEnds[edgeID];
+    }
+
+    // True if the map is small enough (64 corners, 128 edges) for the bit masks below.
+    public boolean supportsBitMasks() {
+        return neighbourMasks != null;
+    }
+
+    // Bits of every corner one edge away.
+    public long neighbourMask(int node) {
+        return neighbourMasks[node];
+    }
+
+    // Bits of the edges touching the corner that have IDs 0-63.
+    public long incidentEdgesLow(int node) {
+        return incidentEdgesLow[node];
+    }
+
+    // Bits of the edges touching the corner that have IDs 64-127.
+    public long incidentEdgesHigh(int node) {
+        return incidentEdgesHigh[node];
+    }
+}
@@ -0,0 +1,212 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Everything about a map that never changes during a game: which corners each hex has, the hexes themselves
+// (resource and number), corner adjacency and edge IDs, which hexes touch each corner, and which hexes and corners
+// produce on each roll. Built once and shared by every Board on that map, so a new game only allocates its own
+// buildings and roads. All fields are final and the arrays are never written after construction, so one instance is
+// safe to share between threads; callers must not modify the arrays they get back. The exceptions are the hop
+// distance table (it is n*n in size) and the corner values used for opening placement, which are built on first use
+// and then never change.
+final class BoardTopology {
+    static final int MAX_ROLL = 12;
+
+    // The standard 19-hex, 54-corner map used by Catan.main.
+    static final BoardTopology STANDARD = standard();
+
+    private final int[][] tilesNodes;
+    private final int nodeCount;
+    private final HexTerrain[] tiles;
+    private final List<HexTerrain> tileList;
+    private final BoardAdjacency adjacency;
+    // Corner -> hexes it sits on.
+    private final int[][] cornerHexes;
+    // Roll number -> IDs of the hexes with that token, and their corners (6 per hex, same order as the hexes).
+    private final int[][] rollHexes = new int[MAX_ROLL + 1][];
+    private final int[][] rollCorners = new int[MAX_ROLL + 1][];
+    // Corner -> the roll numbers and resources (ordinal) of the producing hexes around it.
+    private final int[][] cornerRolls;
+    private final int[][] cornerResources;
+    private volatile HopDistances distances;
+    private volatile CornerValues cornerValues;
+
+    public BoardTopology(int[][] tilesNodes, int nodeCount, HexTerrain[] tiles) {
+        this.tilesNodes = tilesNodes;
+        this.nodeCount = nodeCount;
+        this.tiles = tiles;
+        List<HexTerrain> list = new ArrayList<>();
+        Collections.addAll(list, tiles);
+        this.tileList = Collections.unmodifiableList(list);
+        this.adjacency = new BoardAdjacency(tilesNodes, nodeCount);
+
+        int[] hexesPerCorner = new int[nodeCount];
+        int[] hexesPerRoll = new int[MAX_ROLL + 1];
+        int[] rollsPerCorner = new int[nodeCount];
+        for (int hexID = 0; hexID < tilesNodes.length; hexID++) {
+            int roll = rollOf(tiles[hexID]);
+            if (roll >= 0) {
+                hexesPerRoll[roll]++;
+            }
+            for (int corner : tilesNodes[hexID]) {
+                hexesPerCorner[corner]++;
+                if (roll >= 0) {
+                    rollsPerCorner[corner]++;
+                }
+            }
+        }
+
+        for (int roll = 0; roll <= MAX_ROLL; roll++) {
+            rollHexes[roll] = new int[hexesPerRoll[roll]];
+            rollCorners[roll] = new int[hexesPerRoll[roll] * 6];
+        }
+        cornerHexes = new int[nodeCount][];
+        cornerRolls = new int[nodeCount][];
+        cornerResources = new int[nodeCount][];
+        for (int corner = 0; corner < nodeCount; corner++) {
+            cornerHexes[corner] = new int[hexesPerCorner[corner]];
+            cornerRolls[corner] = new int[rollsPerCorner[corner]];
+            cornerResources[corner] = new int[rollsPerCorner[corner]];
+        }
+
+        int[] rollFill = new int[MAX_ROLL + 1];
+        int[] hexFill = new int[nodeCount];
+        int[] producerFill = new int[nodeCount];
+        for (int hexID = 0; hexID < tilesNodes.length; hexID++) {
+            for (int corner : tilesNodes[hexID]) {
+                cornerHexes[corner][hexFill[corner]++] = hexID;
+            }
+            int roll = rollOf(tiles[hexID]);
+            if (roll < 0) {
+                continue;
+            }
+            int resource = tiles[hexID].produceResource().ordinal();
+            System.arraycopy(tilesNodes[hexID], 0, rollCorners[roll], rollFill[roll] * 6, 6);
+            rollHexes[roll][rollFill[roll]++] = hexID;
+            for (int corner : tilesNodes[hexID]) {
+                cornerRolls[corner][producerFill[corner]] = roll;
+                cornerResources[corner][producerFill[corner]++] = resource;
+            }
+        }
+    }
+
+    private static BoardTopology standard() {
+        int[][] tilesNodes = { 
+            { 41, 42, 40, 18, 17, 39 }, { 40, 44, 43, 21, 16, 18 }, { 43, 45, 47, 46, 19, 21 },
+            { 38, 39, 17, 15, 14, 37 }, { 17, 18, 16, 5, 4, 15 }, { 16, 21, 19, 20, 0, 5 },
+            { 19, 46, 48, 49, 22, 20 }, { 36, 37, 14, 13, 34, 35 }, { 14, 15, 4, 3, 12, 13 },
+            { 4, 5, 0, 1, 2, 3 }, { 0, 20, 22, 23, 6, 1 }, { 22, 49, 50, 51, 52, 23 },
+            { 34, 13, 12, 11, 32, 33 }, { 12, 3, 2, 9, 10, 11 }, { 2, 1, 6, 7, 8, 9 },
+            { 6, 23, 52, 53, 24, 7 }, { 32, 11, 10, 29, 30, 31 }, { 10, 9, 8, 27, 28, 29 },
+            { 8, 7, 24, 25, 26, 27 } 
+        };
+
+        ResourceType[] resources = {
+            ResourceType.Wood, ResourceType.Wood, ResourceType.Wood, ResourceType.Wood,
+            ResourceType.Brick, ResourceType.Brick, ResourceType.Brick,
+            ResourceType.Wheat, ResourceType.Wheat, ResourceType.Wheat, ResourceType.Wheat,
+            ResourceType.Sheep, ResourceType.Sheep, ResourceType.Sheep, ResourceType.Sheep,
+            ResourceType.Ore, ResourceType.Ore, ResourceType.Ore
+        };
+
+        int[] numbers = { 2, 3, 3, 4, 4, 5, 5, 6, 6, 8, 8, 9, 9, 10, 10, 11, 11, 12 };
+
+        HexTerrain[] tiles = new HexTerrain[19];
+        tiles[9] = new DesertHex(9);
+
+        int resourceIndex = 0;
+        for (int i = 0; i < 19; i++) {
+            if (i == 9) {
+                continue;
+            }
+            tiles[i] = new ResourceHex(i, new HexBoardNum(numbers[resourceIndex]), resources[resourceIndex]);
+            resourceIndex++;
+        }
+
+        return new BoardTopology(tilesNodes, 54, tiles);
+    }
+
+    // Number token of a producing hex, or -1 for the desert.
+    private static int rollOf(HexTerrain hex) {
+        if (hex == null || !hex.productionStatus() || hex.getHexNumber() == null) {
+            return -1;
+        }
+        return hex.getHexNumber().getHexNum();
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public int getHexCount() {
+        return tiles.length;
+    }
+
+    public BoardAdjacency getAdjacency() {
+        return adjacency;
+    }
+
+    public HexTerrain getHex(int hexID) {
+        return hexID >= 0 && hexID < tiles.length ? tiles[hexID] : null;
+    }
+
+    // All hexes, in ID order (read-only).
+    public List<HexTerrain> getHexes() {
+        return tileList;
+    }
+
+    // Corners of the hex, in order around it.
+    public int[] getHexCorners(int hexID) {
+        return tilesNodes[hexID];
+    }
+
+    public int[] getCornerHexes(int intersectionID) {
+        return cornerHexes[intersectionID];
+    }
+
+    public int[] getRollHexes(int roll) {
+        return rollHexes[roll];
+    }
+
+    public int[] getRollCorners(int roll) {
+        return rollCorners[roll];
+    }
+
+    public int[] getCornerRolls(int intersectionID) {
+        return cornerRolls[intersectionID];
+    }
+
+    public int[] getCornerResources(int intersectionID) {
+        return cornerResources[intersectionID];
+    }
+
+    // Hop distances between all corners, built the first time any board on this map asks.
+    public HopDistances getDistances() {
+        HopDistances table = distances;
+        if (table == null) {
+            synchronized (this) {
+                table = distances;
+                if (table == null) {
+                    table = new HopDistances(adjacency);
+                    distances = table;
+                }
+            }
+        }
+        return table;
+    }
+
+    // Pips and resources of every corner, built the first time anyone asks.
+    public CornerValues getCornerValues() {
+        CornerValues values = cornerValues;
+        if (values == null) {
+            synchronized (this) {
+                values = cornerValues;
+                if (values == null) {
+                    values = new CornerValues(this);
+                    cornerValues = values;
+                }
+            }
+        }
+        return values;
+    }
+}
@@ -13,6 +13,9 @@ abstract class Building {
 
     public abstract int getVictoryPoints();
 
+    // Cards of its resource paid per neighbouring hex when that hex's number is rolled.
+    public abstract int getResourceYield();
+
     public Player getOwner() {
         return buildOwner;
     }
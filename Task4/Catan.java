@@ -2,6 +2,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Scanner;
+import java.util.SplittableRandom;
 import java.io.File;
 
 // Starts the game: makes the board, players, then runs rounds until someone hits 10 VP or we hit max rounds.
@@ -19,39 +20,8 @@ class Catan {
         int maxRounds = Integer.parseInt(line.split(":")[1].trim());
         scanner.close();
 
-        // Make 4 players with no stuff yet.
-        List<Player> players = new ArrayList<Player>();
-
-        Player p1 = new Player(1, 0, new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new HashMap<>());
-        Player p2 = new Player(2, 0, new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new HashMap<>());
-        Player p3 = new Player(3, 0, new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new HashMap<>());
-        Player p4 = new Player(4, 0, new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new HashMap<>());
-
-        players.add(p1);
-        players.add(p2);
-        players.add(p3);
-        players.add(p4);
-
-        // Put 2 settlements per player on the board (each gives 1 VP). First one each.
-        board.placeSettlement(board.getIntersection(0), p1);
-        p1.addVictoryPoint();
-        board.placeSettlement(board.getIntersection(10), p2);
-        p2.addVictoryPoint();
-        board.placeSettlement(board.getIntersection(20), p3);
-        p3.addVictoryPoint();
-        board.placeSettlement(board.getIntersection(30), p4);
-        p4.addVictoryPoint();
-
-        // Second settlement each (different spots so they are not next to the first
-        // ones).
-        board.placeSettlement(board.getIntersection(7), p1);
-        p1.addVictoryPoint();
-        board.placeSettlement(board.getIntersection(13), p2);
-        p2.addVictoryPoint();
-        board.placeSettlement(board.getIntersection(16), p3);
-        p3.addVictoryPoint();
-        board.placeSettlement(board.getIntersection(22), p4);
-        p4.addVictoryPoint();
+        List<Player> players = createPlayers();
+        placeStartingSettlements(board, players, new SplittableRandom());
 
         // One turn = roll dice, give out resources, player does one build. Simulator
         // runs round by round.
@@ -60,4 +30,22 @@ class Catan {
 
         simulator.runGame();
     }
-}
\ No newline at end of file
+
+    // Make 4 players with no stuff yet.
+    static List<Player> createPlayers() {
+        List<Player> players = new ArrayList<Player>();
+
+        players.add(new Player(1, 0, new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new HashMap<>()));
+        players.add(new Player(2, 0, new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new HashMap<>()));
+        players.add(new Player(3, 0, new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new HashMap<>()));
+        players.add(new Player(4, 0, new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new HashMap<>()));
+
+        return players;
+    }
+
+    // Put 2 settlements per player on the board (each gives 1 VP), drafted in snake order
+    // by pips and resource spread rather than at fixed spots. random breaks ties between equally good corners.
+    static void placeStartingSettlements(Board board, List<Player> players, SplittableRandom random) {
+        new OpeningDraft(PlacementScorer.BALANCED).place(board, players, random);
+    }
+}
@@ -0,0 +1,1420 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+// Randomized cross-checks of the incremental board structures against brute force. Each check plays seeded random
+// builds (every player holds plenty of cards, so only the placement rules decide) on the standard map and on
+// generated ones, and after every step compares the structure with an answer worked out from the intersections and
+// edge owners alone. Half the builds come from the move generator and half are any corner or edge at all, so the
+// rules get asked about illegal spots too. Prints one line per check and stops at the first mismatch, naming the
+// game and step; the same seed replays the same builds. A few checks use fixed cases instead, where the interesting
+// inputs are known (occupied corners, log lines, table packing limits).
+// Usage: java Checks.java [games] [seed]
+class Checks {
+    private static final int STEPS = 150;
+    private static final int CARDS = 1_000_000;
+
+    // One check over one game: play STEPS builds and compare after each. Returns the number of comparisons.
+    interface GameCheck {
+        long run(Board board, List<Player> players, SplittableRandom random, String game);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 2026;
+
+        report("BoardAdjacency against the hex corner lists", adjacency(seed));
+        report("Edge IDs", edgeIds(seed));
+        report("HexMapGenerator sizes and tiles", mapShapes(seed));
+        report("Road occupancy index", run(games, seed, Checks::roadIndex));
+        report("BitBoard against the object board", run(games, seed, Checks::bitBoard));
+        report("ResourceHand against plain counts", resourceHands(seed));
+        report("Board.placeSettlement on occupied corners", settlementsNeedEmptyCorner());
+        report("GameView seats", viewSeats());
+        report("Forced spend log lines", forcedSpends());
+        report("RingBufferEventSink against TextEventSink", eventSinks(seed));
+        report("OpeningDraft picks and order", openingDraft(games, seed));
+        report("Standard map resource coverage", standardCoverage());
+        report("Seeded games replay", seededReplay(games, seed));
+        report("BatchRunner totals across thread counts", batchThreads(games, seed));
+        report("MoveGenerator", run(games, seed, Checks::moveGenerator));
+        report("ProductionTable payouts", run(games, seed, Checks::production));
+        report("Zobrist hashes", run(games, seed, Checks::zobrist));
+        report("TranspositionTable store/probe", transpositionTable(seed));
+        report("MoveStack make/unmake", run(games, seed, Checks::moveStack));
+        report("Longest Road", run(games, seed, Checks::longestRoad));
+        report("HopDistances and SpatialQueries", spatial(games, seed));
+        report("GameCopy", run(games, seed, Checks::gameCopy));
+        report("RolloutEngine load and lockstep", run(games, seed, Checks::rolloutEngine));
+        System.out.println("All checks passed");
+    }
+
+    private static void report(String name, long comparisons) {
+        System.out.printf("%-45s %,12d comparisons ok%n", name, comparisons);
+    }
+
+    // Game g is on the standard map if g is even, else on a generated map; both sides get two opening settlements.
+    private static long run(int games, long seed, GameCheck check) {
+        long comparisons = 0;
+        for (int g = 0; g < games; g++) {
+            SplittableRandom random = new SplittableRandom(BatchRunner.gameSeed(seed, g));
+            BoardTopology topology = g % 2 == 0 ? BoardTopology.STANDARD : HexMapGenerator.hexagon(2 + g % 3, random.nextLong());
+            Board board = new Board(topology);
+            List<Player> players = Catan.createPlayers();
+            for (int settlement = 0; settlement < 2; settlement++) {
+                for (Player player : players) {
+                    int corner = randomCorner(board, random, c -> isSettlementSpot(board, player, c));
+                    board.placeSettlement(board.getIntersection(corner), player);
+                    player.addVictoryPoint();
+                }
+            }
+            for (Player player : players) {
+                for (ResourceType resource : ResourceType.values()) {
+                    player.addResource(resource, CARDS);
+                }
+            }
+            comparisons += check.run(board, players, random, "game " + g);
+        }
+        return comparisons;
+    }
+
+    // The standard map, generated hexagons of radius 0 to 5 and the 5-6 player map.
+    private static List<BoardTopology> sampleMaps(long seed) {
+        List<BoardTopology> maps = new ArrayList<>();
+        maps.add(BoardTopology.STANDARD);
+        for (int radius = 0; radius <= 5; radius++) {
+            maps.add(HexMapGenerator.hexagon(radius, seed + radius));
+        }
+        maps.add(HexMapGenerator.fiveSixPlayer(seed));
+        return maps;
+    }
+
+    // Two corners are neighbours exactly when they sit next to each other around some hex (the scan the old
+    // Board.isValidEdge did), so every CSR row must be that set, ascending with no repeats, and isAdjacent must agree
+    // for every pair. On the standard map Board.getNeighbouringIntersections must give the same rows.
+    private static long adjacency(long seed) {
+        long comparisons = 0;
+        for (BoardTopology topology : sampleMaps(seed)) {
+            BoardAdjacency adjacency = topology.getAdjacency();
+            int n = topology.getNodeCount();
+            boolean[][] beside = besideAroundHexes(topology);
+            Board board = topology == BoardTopology.STANDARD ? new Board() : null;
+            for (int a = 0; a < n; a++) {
+                String where = n + "-corner map, corner " + a;
+                List<Integer> expected = new ArrayList<>();
+                for (int b = 0; b < n; b++) {
+                    expect(adjacency.isAdjacent(a, b) == beside[a][b], where + ": isAdjacent(" + a + ", " + b + ")");
+                    if (beside[a][b]) {
+                        expected.add(b);
+                    }
+                }
+                List<Integer> row = new ArrayList<>();
+                for (int k = 0; k < adjacency.degree(a); k++) {
+                    row.add(adjacency.neighbour(a, k));
+                }
+                expect(row.equals(expected), where + ": neighbours " + row + ", not " + expected);
+                if (board != null) {
+                    expect(board.getNeighbouringIntersections(a).equals(expected), where + ": Board neighbours");
+                }
+                comparisons += n + 2;
+            }
+        }
+        return comparisons;
+    }
+
+    // One ID per hex side, 0 to edge count - 1, numbered by lower corner then higher corner (72 sides on the standard
+    // map). edgeId works in either order, gives -1 for corners that are not neighbours, and matches edgeStart/edgeEnd
+    // and each corner's neighbourEdge list.
+    private static long edgeIds(long seed) {
+        long comparisons = 0;
+        expect(BoardTopology.STANDARD.getAdjacency().getEdgeCount() == 72, "standard map edge count");
+        for (BoardTopology topology : sampleMaps(seed)) {
+            BoardAdjacency adjacency = topology.getAdjacency();
+            int n = topology.getNodeCount();
+            boolean[][] beside = besideAroundHexes(topology);
+            int sides = 0;
+            int next = 0;
+            for (int a = 0; a < n; a++) {
+                for (int b = a + 1; b < n; b++) {
+                    String where = n + "-corner map, corners " + a + "-" + b;
+                    int edgeID = adjacency.edgeId(a, b);
+                    expect(adjacency.edgeId(b, a) == edgeID, where + ": edgeId depends on order");
+                    if (!beside[a][b]) {
+                        expect(edgeID == -1, where + ": ID for corners that are not neighbours");
+                        continue;
+                    }
+                    sides++;
+                    expect(edgeID == next++, where + ": ID " + edgeID + " out of (lower, higher) order");
+                    expect(adjacency.edgeStart(edgeID) == a && adjacency.edgeEnd(edgeID) == b, where + ": edge ends");
+                }
+            }
+            expect(adjacency.getEdgeCount() == sides, n + "-corner map: " + adjacency.getEdgeCount() + " edges, not " + sides);
+            for (int a = 0; a < n; a++) {
+                for (int k = 0; k < adjacency.degree(a); k++) {
+                    int edgeID = adjacency.neighbourEdge(a, k);
+                    expect(edgeID == adjacency.edgeId(a, adjacency.neighbour(a, k)), n + "-corner map: neighbourEdge of " + a);
+                }
+            }
+            comparisons += (long) n * (n - 1) / 2 + 2L * adjacency.getEdgeCount();
+        }
+        return comparisons + 1;
+    }
+
+    // After every build, the per-board occupancy bits and owner array against every player's own road list.
+    private static long roadIndex(Board board, List<Player> players, SplittableRandom random, String game) {
+        BoardAdjacency adjacency = board.getAdjacency();
+        Player[] owners = new Player[adjacency.getEdgeCount()];
+        for (int step = 0; step < STEPS; step++) {
+            randomBuild(board, players.get(random.nextInt(players.size())), random, game + " step " + step);
+            Arrays.fill(owners, null);
+            for (Player player : players) {
+                for (Road road : player.getPlayerRoads()) {
+                    int edgeID = adjacency.edgeId(road.getLocation().getStart(), road.getLocation().getEnd());
+                    expect(edgeID >= 0 && owners[edgeID] == null, game + " step " + step + ": road list entry " + edgeID);
+                    owners[edgeID] = player;
+                }
+            }
+            for (int edgeID = 0; edgeID < owners.length; edgeID++) {
+                String where = game + " step " + step + " edge " + edgeID;
+                expect(board.getEdgeOwner(edgeID) == owners[edgeID], where + ": owner");
+                expect(board.isEdgeOccupied(edgeID) == (owners[edgeID] != null), where + ": occupied");
+                expect(board.isEdgeOccupied(adjacency.edgeEnd(edgeID), adjacency.edgeStart(edgeID)) == (owners[edgeID] != null),
+                        where + ": occupied by corners");
+            }
+        }
+        return STEPS * 3L * owners.length;
+    }
+
+    // Random makes and, now and then, unmakes (so removals are covered too), then every BitBoard mask and query against
+    // the Intersection objects and edge owners. Only maps small enough for bit masks have one.
+    private static long bitBoard(Board board, List<Player> players, SplittableRandom random, String game) {
+        BitBoard bits = board.getBitBoard();
+        if (bits == null) {
+            return 0;
+        }
+        BoardAdjacency adjacency = board.getAdjacency();
+        MoveStack stack = new MoveStack(board);
+        long comparisons = 0;
+        for (int step = 0; step < STEPS; step++) {
+            if (stack.size() > 0 && random.nextInt(4) == 0) {
+                stack.unmake();
+            } else {
+                randomMake(board, stack, players.get(random.nextInt(players.size())), random);
+            }
+            String where = game + " step " + step;
+            long occupied = 0;
+            for (Player player : players) {
+                long settlements = 0;
+                long cities = 0;
+                long roadsLow = 0;
+                long roadsHigh = 0;
+                for (int corner = 0; corner < adjacency.getNodeCount(); corner++) {
+                    Building building = board.getIntersection(corner).getBuilding();
+                    if (building != null && building.getOwner() == player) {
+                        settlements |= building instanceof Settlement ? 1L << corner : 0;
+                        cities |= building instanceof City ? 1L << corner : 0;
+                    }
+                    expect(bits.touchesRoad(corner, player) == hasRoadAt(board, player, corner, -1), where + ": road at " + corner);
+                }
+                for (int edgeID = 0; edgeID < adjacency.getEdgeCount(); edgeID++) {
+                    if (board.getEdgeOwner(edgeID) == player) {
+                        roadsLow |= edgeID < 64 ? 1L << edgeID : 0;
+                        roadsHigh |= edgeID >= 64 ? 1L << (edgeID - 64) : 0;
+                    }
+                }
+                String who = where + " player " + player.getPlayerID();
+                expect(bits.getSettlements(player) == settlements, who + ": settlements");
+                expect(bits.getCities(player) == cities, who + ": cities");
+                expect(bits.getRoadsLow(player) == roadsLow && bits.getRoadsHigh(player) == roadsHigh, who + ": roads");
+                occupied |= settlements | cities;
+                comparisons += 3 + adjacency.getNodeCount();
+            }
+            expect(bits.getOccupied() == occupied, where + ": occupied");
+            for (int corner = 0; corner < adjacency.getNodeCount(); corner++) {
+                boolean clear = board.getIntersection(corner).getBuilding() == null;
+                for (int k = 0; k < adjacency.degree(corner); k++) {
+                    clear &= board.getIntersection(adjacency.neighbour(corner, k)).getBuilding() == null;
+                }
+                expect(bits.isDistanceRuleClear(corner) == clear, where + ": distance rule at " + corner);
+            }
+            comparisons += 1 + adjacency.getNodeCount();
+        }
+        return comparisons;
+    }
+
+    // Random adds, removes, pays and refunds on a player's hand, against a plain count per resource: every count, the
+    // total, covers and canAfford for each build cost, what remove says it did, toMap, and the Zobrist hash.
+    private static long resourceHands(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        ResourceType[] resources = ResourceType.values();
+        int[][] costs = {
+            ResourceHand.cost(1, 1, 1, 1, 0), ResourceHand.cost(0, 0, 2, 0, 3), ResourceHand.cost(1, 1, 0, 0, 0)
+        };
+        TurnAction.Kind[] kinds = { TurnAction.Kind.SETTLEMENT, TurnAction.Kind.CITY, TurnAction.Kind.ROAD };
+        Player player = Catan.createPlayers().get(random.nextInt(4));
+        ResourceHand hand = player.getHand();
+        int[] counts = new int[resources.length];
+        long comparisons = 0;
+        for (int step = 0; step < 200_000; step++) {
+            String where = "step " + step;
+            ResourceType resource = resources[random.nextInt(resources.length)];
+            int quantity = random.nextInt(5);
+            int op = random.nextInt(5);
+            if (op == 0) {
+                player.addResource(resource, quantity);
+                counts[resource.ordinal()] += quantity;
+            } else if (op == 1) {
+                boolean enough = counts[resource.ordinal()] >= quantity;
+                expect(player.checkResource(resource, quantity) == enough, where + ": checkResource");
+                // A refused remove prints a line, so only some of them are tried.
+                if (enough || step % 1000 == 0) {
+                    expect(player.removeResource(resource, quantity) == enough, where + ": removeResource");
+                    counts[resource.ordinal()] -= enough ? quantity : 0;
+                }
+            } else if (op == 2) {
+                // Payouts and their take-backs add by index, negative for a take-back.
+                int change = counts[resource.ordinal()] >= quantity && random.nextBoolean() ? -quantity : quantity;
+                hand.add(resource.ordinal(), change);
+                counts[resource.ordinal()] += change;
+            } else {
+                int[] cost = costs[random.nextInt(costs.length)];
+                boolean covered = true;
+                for (int i = 0; i < cost.length; i++) {
+                    covered &= counts[i] >= cost[i];
+                }
+                expect(hand.covers(cost) == covered, where + ": covers");
+                if (covered && op == 3) {
+                    hand.pay(cost);
+                    for (int i = 0; i < cost.length; i++) {
+                        counts[i] -= cost[i];
+                    }
+                } else if (op == 4) {
+                    hand.refund(cost);
+                    for (int i = 0; i < cost.length; i++) {
+                        counts[i] += cost[i];
+                    }
+                }
+            }
+            int total = 0;
+            long hash = 0;
+            Map<ResourceType, Integer> expected = new EnumMap<>(ResourceType.class);
+            for (ResourceType r : resources) {
+                int count = counts[r.ordinal()];
+                expect(hand.get(r) == count && hand.has(r, count) && !hand.has(r, count + 1), where + ": count of " + r);
+                total += count;
+                hash ^= Zobrist.hand(player.getPlayerID(), r.ordinal(), count);
+                if (count > 0) {
+                    expected.put(r, count);
+                }
+            }
+            expect(hand.getTotal() == total && player.getTotalResources() == total, where + ": total");
+            expect(hand.getZobristHash() == hash, where + ": hash");
+            expect(hand.toMap().equals(expected) && player.getResources().equals(expected), where + ": map " + hand.toMap());
+            for (int k = 0; k < kinds.length; k++) {
+                expect(player.canAfford(kinds[k]) == hand.covers(costs[k]), where + ": canAfford " + kinds[k]);
+            }
+            comparisons += resources.length + 3 + kinds.length;
+        }
+        return comparisons;
+    }
+
+    // Generated maps against the closed forms for a hexagon of radius r: 3r(r + 1) + 1 hexes, 6(r + 1)^2 corners,
+    // corners + hexes - 1 edges and 6(r + 1) corners on only two edges, the rest on three. The 5-6 player board is 30
+    // hexes, 80 corners, 109 edges and 22 two-edge corners. Every hex has six different corners, each next to the one
+    // after it; every map is connected; tokens are 2 to 12 but never 7; radius 2 and the 5-6 player board deal
+    // exactly their bags, and radius 2 has the standard map's sizes and tiles.
+    private static long mapShapes(long seed) {
+        long comparisons = 0;
+        List<BoardTopology> maps = new ArrayList<>();
+        List<int[]> sizes = new ArrayList<>();
+        for (int radius = 0; radius <= 5; radius++) {
+            for (int k = 0; k < 4; k++) {
+                maps.add(HexMapGenerator.hexagon(radius, seed + 10 * radius + k));
+                sizes.add(new int[] { 3 * radius * (radius + 1) + 1, 6 * (radius + 1) * (radius + 1), 6 * (radius + 1) });
+            }
+        }
+        for (int k = 0; k < 4; k++) {
+            maps.add(HexMapGenerator.fiveSixPlayer(seed + k));
+            sizes.add(new int[] { 30, 80, 22 });
+        }
+        maps.add(BoardTopology.STANDARD);
+        sizes.add(new int[] { 19, 54, 18 });
+        String standardTiles = tileBag(BoardTopology.STANDARD);
+        for (int m = 0; m < maps.size(); m++) {
+            BoardTopology topology = maps.get(m);
+            BoardAdjacency adjacency = topology.getAdjacency();
+            int hexes = sizes.get(m)[0];
+            int corners = sizes.get(m)[1];
+            String where = "map " + m + " (" + hexes + " hexes)";
+            expect(topology.getHexCount() == hexes, where + ": hex count " + topology.getHexCount());
+            expect(topology.getNodeCount() == corners, where + ": corner count " + topology.getNodeCount());
+            expect(adjacency.getEdgeCount() == corners + hexes - 1, where + ": edge count " + adjacency.getEdgeCount());
+            int twoEdgeCorners = 0;
+            for (int c = 0; c < corners; c++) {
+                expect(adjacency.degree(c) == 2 || adjacency.degree(c) == 3, where + ": degree of corner " + c);
+                twoEdgeCorners += adjacency.degree(c) == 2 ? 1 : 0;
+            }
+            expect(twoEdgeCorners == sizes.get(m)[2], where + ": two-edge corners " + twoEdgeCorners);
+            comparisons += 4 + corners;
+
+            int deserts = 0;
+            for (int h = 0; h < hexes; h++) {
+                int[] around = topology.getHexCorners(h);
+                expect(around.length == 6 && Arrays.stream(around).distinct().count() == 6, where + ": corners of hex " + h);
+                for (int k = 0; k < 6; k++) {
+                    expect(adjacency.isAdjacent(around[k], around[(k + 1) % 6]), where + ": hex " + h + " side " + k);
+                }
+                HexTerrain hex = topology.getHex(h);
+                if (hex.produceResource() == null) {
+                    deserts++;
+                } else {
+                    int token = hex.getHexNumber().getHexNum();
+                    expect(token >= 2 && token <= 12 && token != 7, where + ": token " + token + " on hex " + h);
+                }
+                comparisons += 8;
+            }
+            if (hexes == 19) {
+                expect(deserts == 1 && tileBag(topology).equals(standardTiles), where + ": tiles " + tileBag(topology));
+            } else if (hexes == 30) {
+                expect(deserts == 2 && tileBag(topology).equals(tileBag(HexMapGenerator.fiveSixPlayer(seed + 99))),
+                        where + ": tiles " + tileBag(topology));
+            }
+
+            boolean[] reached = new boolean[corners];
+            int[] queue = new int[corners];
+            int tail = 0;
+            reached[0] = true;
+            queue[tail++] = 0;
+            for (int head = 0; head < tail; head++) {
+                for (int k = 0; k < adjacency.degree(queue[head]); k++) {
+                    int next = adjacency.neighbour(queue[head], k);
+                    if (!reached[next]) {
+                        reached[next] = true;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+            expect(tail == corners, where + ": only " + tail + " corners reachable");
+            comparisons += 2;
+        }
+        return comparisons;
+    }
+
+    // The map's resources and number tokens, each sorted, so two maps dealt from the same bags compare equal.
+    private static String tileBag(BoardTopology topology) {
+        List<String> resources = new ArrayList<>();
+        List<Integer> tokens = new ArrayList<>();
+        for (HexTerrain hex : topology.getHexes()) {
+            resources.add(String.valueOf(hex.produceResource()));
+            if (hex.produceResource() != null) {
+                tokens.add(hex.getHexNumber().getHexNum());
+            }
+        }
+        resources.sort(null);
+        tokens.sort(null);
+        return resources + " " + tokens;
+    }
+
+    // beside[a][b]: a and b are consecutive corners (wrapping round) in some hex's corner list.
+    private static boolean[][] besideAroundHexes(BoardTopology topology) {
+        boolean[][] beside = new boolean[topology.getNodeCount()][topology.getNodeCount()];
+        for (int hex = 0; hex < topology.getHexCount(); hex++) {
+            int[] corners = topology.getHexCorners(hex);
+            for (int k = 0; k < corners.length; k++) {
+                int a = corners[k];
+                int b = corners[(k + 1) % corners.length];
+                beside[a][b] = true;
+                beside[b][a] = true;
+            }
+        }
+        return beside;
+    }
+
+    // A player cannot settle on a corner with a building, theirs or an opponent's, even with a road to it.
+    private static long settlementsNeedEmptyCorner() {
+        Board board = new Board();
+        List<Player> players = Catan.createPlayers();
+        Player first = players.get(0);
+        Player second = players.get(1);
+        BoardAdjacency adjacency = board.getAdjacency();
+        // first settles on 0 and 30 and builds roads 0-b-c; second settles on c, two steps from 0.
+        int b = adjacency.neighbour(0, 0);
+        int c = -1;
+        for (int k = 0; k < adjacency.degree(b) && c < 0; k++) {
+            int candidate = adjacency.neighbour(b, k);
+            if (candidate != 0 && adjacency.edgeId(candidate, 0) < 0) {
+                c = candidate;
+            }
+        }
+        expect(board.placeSettlement(board.getIntersection(0), first), "first settlement");
+        expect(board.placeSettlement(board.getIntersection(30), first), "second settlement");
+        expect(board.placeSettlement(board.getIntersection(c), second), "opponent settlement");
+        expect(board.placeRoad(adjacency.edgeId(0, b), first), "road 0-b");
+        expect(board.placeRoad(adjacency.edgeId(b, c), first), "road b-c");
+
+        expect(!board.getMoveGenerator().isSettlementSpot(first, 0), "own settlement offered as a spot");
+        expect(!board.placeSettlement(board.getIntersection(0), first), "settled on own settlement");
+        expect(board.placeCity(board.getIntersection(0), first), "city");
+        expect(!board.getMoveGenerator().isSettlementSpot(first, 0), "own city offered as a spot");
+        expect(!board.placeSettlement(board.getIntersection(0), first), "settled on own city");
+        expect(board.getIntersection(0).getBuilding() instanceof City, "city was replaced");
+        expect(!board.getMoveGenerator().isSettlementSpot(first, c), "opponent settlement offered as a spot");
+        expect(!board.placeSettlement(board.getIntersection(c), first), "settled on opponent settlement");
+        expect(board.getIntersection(c).getPlayer() == second, "opponent settlement was replaced");
+        return 8;
+    }
+
+    // The view reports the seat the turn loop gave it, and its copy keeps the turn order, even when players first
+    // built out of turn order or have not built at all.
+    private static long viewSeats() {
+        Board board = new Board();
+        List<Player> players = Catan.createPlayers();
+        for (int seat = players.size() - 1; seat >= 1; seat--) {
+            expect(board.placeSettlement(board.getIntersection(seat * 10), players.get(seat)), "settlement for seat " + seat);
+        }
+        GameView view = new GameView(board);
+        for (int seat = 0; seat < players.size(); seat++) {
+            view.set(players, seat, 1);
+            GameCopy copy = view.copyGame();
+            expect(view.getSeat() == seat, "view seat " + view.getSeat() + " for seat " + seat);
+            expect(copy.getPlayer(seat).getPlayerID() == players.get(seat).getPlayerID(), "copy seat " + seat);
+        }
+        return 2L * players.size();
+    }
+
+    // Over 7 cards the turn is a forced spend. An agent can still pick a build the player cannot pay for, and the log
+    // line must then say it failed: with only ore each kind fails, with a card of everything each kind goes through.
+    private static long forcedSpends() {
+        long comparisons = 0;
+        for (TurnAction.Kind kind : new TurnAction.Kind[] { TurnAction.Kind.SETTLEMENT, TurnAction.Kind.CITY,
+                TurnAction.Kind.ROAD }) {
+            for (boolean affordable : new boolean[] { false, true }) {
+                Board board = new Board();
+                List<Player> players = Catan.createPlayers();
+                Player player = players.get(0);
+                expect(board.placeSettlement(board.getIntersection(0), player), "settlement");
+                player.addVictoryPoint();
+                player.addResource(ResourceType.Ore, 8);
+                if (affordable) {
+                    for (ResourceType resource : ResourceType.values()) {
+                        player.addResource(resource, 2);
+                    }
+                }
+                player.setAgent((view, moves) -> moves.start(kind));
+                Turn turn = new Turn(new Dice(new SplittableRandom(1)), new Production(board), board, NoOpEventSink.INSTANCE);
+                TurnAction action = turn.playAction(players, 0, 1);
+                String where = kind + (affordable ? " with cards" : " with only ore") + ": " + action.describe();
+                expect(action.isForced() && action.isBuilt() == affordable, where);
+                expect(action.describe().startsWith(affordable ? "forced spend: built" : "forced spend: could not")
+                        || affordable && action.describe().startsWith("forced spend: upgraded"), where);
+                comparisons += 2;
+            }
+        }
+        return comparisons;
+    }
+
+    // The same seeded game played into a TextEventSink and into ring buffers of a few sizes: each buffer must keep
+    // exactly the last turns' lines as the text sink wrote them. A buffer with no room is refused up front.
+    private static long eventSinks(long seed) {
+        List<String> written = new ArrayList<>();
+        playLogged(seed, new TextEventSink() {
+            @Override
+            protected void writeLine(String line) {
+                if (line.startsWith("[")) {
+                    written.add(line);
+                }
+            }
+        });
+        long comparisons = 0;
+        for (int capacity : new int[] { 1, 7, written.size(), written.size() + 5 }) {
+            RingBufferEventSink ring = new RingBufferEventSink(capacity);
+            playLogged(seed, ring);
+            List<String> kept = ring.recentTurns();
+            expect(ring.getTurnsSeen() == written.size(), "capacity " + capacity + ": turns seen");
+            expect(kept.size() == Math.min(capacity, written.size()), "capacity " + capacity + ": turns kept");
+            expect(kept.equals(written.subList(written.size() - kept.size(), written.size())), "capacity " + capacity
+                    + ": lines differ from TextEventSink");
+            comparisons += 3;
+        }
+        boolean refused = false;
+        try {
+            new RingBufferEventSink(0);
+        } catch (IllegalArgumentException e) {
+            refused = true;
+        }
+        expect(refused, "capacity 0 accepted");
+        return comparisons + 1;
+    }
+
+    // Playing a game twice from one seed must give the same result and the same log line for line, and the games of a
+    // batch must not all be the same game.
+    private static long seededReplay(int games, long seed) {
+        long comparisons = 0;
+        List<List<String>> logs = new ArrayList<>();
+        for (int g = 0; g < games; g++) {
+            long gameSeed = BatchRunner.gameSeed(seed, g);
+            GameResult first = BatchRunner.playGame(100, gameSeed);
+            GameResult second = BatchRunner.playGame(100, gameSeed);
+            expect(first.getWinnerSeat() == second.getWinnerSeat() && first.getWinnerID() == second.getWinnerID()
+                    && first.getRounds() == second.getRounds()
+                    && Arrays.equals(first.getFinalVictoryPoints(), second.getFinalVictoryPoints()), "game " + g + ": result");
+            List<String> log = logLines(gameSeed);
+            expect(log.equals(logLines(gameSeed)), "game " + g + ": log");
+            expect(!logs.contains(log), "game " + g + ": same log as an earlier game");
+            logs.add(log);
+            comparisons += 3;
+        }
+        return comparisons;
+    }
+
+    private static List<String> logLines(long seed) {
+        List<String> lines = new ArrayList<>();
+        playLogged(seed, new TextEventSink() {
+            @Override
+            protected void writeLine(String line) {
+                lines.add(line);
+            }
+        });
+        return lines;
+    }
+
+    // The same master seed must give the same summary whatever the thread count, and the same as playing the games one
+    // after another here; a different master seed must not.
+    private static long batchThreads(int games, long seed) throws Exception {
+        BatchStats inOrder = new BatchStats(4);
+        for (int g = 0; g < games; g++) {
+            inOrder.record(BatchRunner.playGame(100, BatchRunner.gameSeed(seed, g)));
+        }
+        String expected = inOrder.summary();
+        long comparisons = 0;
+        for (int threads : new int[] { 1, 2, 3, 4, 7 }) {
+            String summary = BatchRunner.runBatch(games, 100, threads, seed).summary();
+            expect(summary.equals(expected), threads + " threads:\n" + summary + "in order:\n" + expected);
+            comparisons++;
+        }
+        expect(!BatchRunner.runBatch(games, 100, 4, seed + 1).summary().equals(expected), "seed + 1 gives the same totals");
+        return comparisons + 1;
+    }
+
+    private static void playLogged(long seed, GameEventSink sink) {
+        SplittableRandom gameRandom = new SplittableRandom(seed);
+        Board board = new Board();
+        List<Player> players = Catan.createPlayers();
+        Dice dice = new Dice(gameRandom.split());
+        for (Player player : players) {
+            player.setRandom(gameRandom.split());
+        }
+        Catan.placeStartingSettlements(board, players, gameRandom.split());
+        Turn turn = new Turn(dice, new Production(board), board, sink);
+        new Simulator(players, turn, 100, sink).runGame();
+    }
+
+    // Drafts on the standard map and generated ones, then replays the picks on a fresh board: pick k must go to seat
+    // 1-2-3-4-4-3-2-1 in turn, be a legal opening corner when it is made, and score as high as any legal corner for
+    // that seat's settlements so far. Generated maps are symmetric, so this also runs through the random tie-breaks.
+    private static long openingDraft(int games, long seed) {
+        long comparisons = 0;
+        int ties = 0;
+        for (int g = 0; g < games; g++) {
+            SplittableRandom random = new SplittableRandom(BatchRunner.gameSeed(seed, g));
+            BoardTopology topology = g % 2 == 0 ? BoardTopology.STANDARD : HexMapGenerator.hexagon(2 + g % 3, random.nextLong());
+            List<Player> drafted = Catan.createPlayers();
+            Board draftBoard = new Board(topology);
+            int[] picks = new OpeningDraft(PlacementScorer.BALANCED).place(draftBoard, drafted, random.split());
+
+            Board board = new Board(topology);
+            List<Player> players = Catan.createPlayers();
+            CornerValues values = topology.getCornerValues();
+            int[][] heldPips = new int[players.size()][CornerValues.RESOURCES];
+            expect(picks.length == players.size() * OpeningDraft.SETTLEMENTS_EACH, "game " + g + ": pick count");
+            for (int k = 0; k < picks.length; k++) {
+                int round = k / players.size();
+                int seat = round % 2 == 0 ? k % players.size() : players.size() - 1 - k % players.size();
+                Player player = players.get(seat);
+                String where = "game " + g + " pick " + k + " (seat " + (seat + 1) + ", corner " + picks[k] + ")";
+                double best = Double.NEGATIVE_INFINITY;
+                int atBest = 0;
+                for (int corner = 0; corner < board.getAdjacency().getNodeCount(); corner++) {
+                    if (isSettlementSpot(board, player, corner)) {
+                        double score = PlacementScorer.BALANCED.score(values, corner, heldPips[seat]);
+                        atBest = score > best ? 1 : score == best ? atBest + 1 : atBest;
+                        best = Math.max(best, score);
+                    }
+                }
+                expect(isSettlementSpot(board, player, picks[k]), where + ": not a legal opening corner");
+                expect(PlacementScorer.BALANCED.score(values, picks[k], heldPips[seat]) == best, where + ": not the best score");
+                ties += atBest > 1 ? 1 : 0;
+                board.placeSettlement(board.getIntersection(picks[k]), player);
+                for (int resource = 0; resource < CornerValues.RESOURCES; resource++) {
+                    heldPips[seat][resource] += values.getResourcePips(picks[k], resource);
+                }
+                expect(draftBoard.getIntersection(picks[k]).getPlayer() == drafted.get(seat), where + ": drafted for the wrong seat");
+                comparisons += 3;
+            }
+        }
+        expect(ties > 0, "no tied picks seen, so the tie-breaks went untested");
+        return comparisons;
+    }
+
+    // OpeningDraft's note on the standard map: no two settlement pairs (distance rule kept) both give a player all
+    // five resources, so only one player can have them. Settlement resources alone (all but ore) can go round all four.
+    private static long standardCoverage() {
+        Board board = new Board();
+        expect(maxCoveredPlayers(board, (1 << CornerValues.RESOURCES) - 1) == 1, "players holding all five resources");
+        int settlementResources = (1 << CornerValues.RESOURCES) - 1 & ~(1 << ResourceType.Ore.ordinal());
+        expect(maxCoveredPlayers(board, settlementResources) == 4, "players holding wood, brick, wheat and sheep");
+        return 2;
+    }
+
+    // Most players that can each own two corners between them producing every resource in mask, with all the corners
+    // distance-rule apart. Exhaustive over corner pairs.
+    private static int maxCoveredPlayers(Board board, int mask) {
+        CornerValues values = board.getTopology().getCornerValues();
+        BoardAdjacency adjacency = board.getAdjacency();
+        List<int[]> pairs = new ArrayList<>();
+        for (int a = 0; a < adjacency.getNodeCount(); a++) {
+            for (int b = a + 1; b < adjacency.getNodeCount(); b++) {
+                if (adjacency.edgeId(a, b) < 0 && ((values.getResourceMask(a) | values.getResourceMask(b)) & mask) == mask) {
+                    pairs.add(new int[] { a, b });
+                }
+            }
+        }
+        return maxDisjointPairs(adjacency, pairs, 0, new ArrayList<>(), 4);
+    }
+
+    private static int maxDisjointPairs(BoardAdjacency adjacency, List<int[]> pairs, int from, List<int[]> chosen,
+            int limit) {
+        int best = chosen.size();
+        for (int i = from; i < pairs.size() && best < limit; i++) {
+            boolean apart = true;
+            for (int[] other : chosen) {
+                for (int a : pairs.get(i)) {
+                    for (int b : other) {
+                        apart &= a != b && adjacency.edgeId(a, b) < 0;
+                    }
+                }
+            }
+            if (apart) {
+                chosen.add(pairs.get(i));
+                best = Math.max(best, maxDisjointPairs(adjacency, pairs, i + 1, chosen, limit));
+                chosen.remove(chosen.size() - 1);
+            }
+        }
+        return best;
+    }
+
+    private static long moveGenerator(Board board, List<Player> players, SplittableRandom random, String game) {
+        long comparisons = 0;
+        for (int step = 0; step < STEPS; step++) {
+            Player player = players.get(random.nextInt(players.size()));
+            randomBuild(board, player, random, game + " step " + step);
+            comparisons += compareMoves(board, players, game + " step " + step);
+            comparisons += compareRoadCounts(board, players, game + " step " + step);
+        }
+        return comparisons;
+    }
+
+    // Every roll's payout after every build against a scan of all hexes with that number and the buildings on their
+    // corners (1 card for a settlement, 2 for a city), and takeBack must give exactly those cards back.
+    private static long production(Board board, List<Player> players, SplittableRandom random, String game) {
+        ProductionTable production = board.getProductionTable();
+        BoardTopology topology = board.getTopology();
+        ResourceType[] resources = ResourceType.values();
+        int[][] before = new int[players.size()][resources.length];
+        int[][] expected = new int[players.size()][resources.length];
+        long comparisons = 0;
+        for (int step = 0; step < STEPS; step++) {
+            randomBuild(board, players.get(random.nextInt(players.size())), random, game + " step " + step);
+            for (int roll = 2; roll <= 12; roll++) {
+                String where = game + " step " + step + " roll " + roll;
+                for (int p = 0; p < players.size(); p++) {
+                    for (ResourceType resource : resources) {
+                        before[p][resource.ordinal()] = players.get(p).getHand().get(resource);
+                        expected[p][resource.ordinal()] = 0;
+                    }
+                }
+                for (HexTerrain hex : topology.getHexes()) {
+                    if (!hex.productionStatus() || hex.getHexNumber() == null || hex.getHexNumber().getHexNum() != roll) {
+                        continue;
+                    }
+                    for (int corner : topology.getHexCorners(hex.getHexID())) {
+                        Building building = board.getIntersection(corner).getBuilding();
+                        if (building != null) {
+                            int cards = building instanceof City ? 2 : 1;
+                            expected[players.indexOf(building.getOwner())][hex.produceResource().ordinal()] += cards;
+                        }
+                    }
+                }
+                production.payOut(roll);
+                for (int p = 0; p < players.size(); p++) {
+                    for (ResourceType resource : resources) {
+                        int paid = players.get(p).getHand().get(resource) - before[p][resource.ordinal()];
+                        expect(paid == expected[p][resource.ordinal()], where + ": player " + players.get(p).getPlayerID()
+                                + " got " + paid + " " + resource + ", not " + expected[p][resource.ordinal()]);
+                    }
+                }
+                production.takeBack(roll);
+                for (int p = 0; p < players.size(); p++) {
+                    for (ResourceType resource : resources) {
+                        expect(players.get(p).getHand().get(resource) == before[p][resource.ordinal()], where
+                                + ": takeBack left player " + players.get(p).getPlayerID() + " a different " + resource);
+                    }
+                }
+                comparisons += 2L * players.size() * resources.length;
+            }
+        }
+        return comparisons;
+    }
+
+    // The board's running hash and every hand's hash against the XOR of all keys, after every build and payout.
+    private static long zobrist(Board board, List<Player> players, SplittableRandom random, String game) {
+        ProductionTable production = board.getProductionTable();
+        long comparisons = 0;
+        for (int step = 0; step < STEPS; step++) {
+            randomBuild(board, players.get(random.nextInt(players.size())), random, game + " step " + step);
+            production.payOut(randomRoll(random));
+            expect(board.getZobristHash() == boardHash(board), game + " step " + step + ": board hash");
+            for (Player player : players) {
+                expect(player.getHand().getZobristHash() == handHash(player), game + " step " + step + ": hand hash");
+            }
+            comparisons += comparePositionKeys(board, players, random, game + " step " + step);
+        }
+        return comparisons + STEPS * (1L + players.size());
+    }
+
+    // Zobrist.position must tell apart positions that differ only in who holds Longest Road (the holder keeps it on a
+    // tie, so the roads alone do not say) or only in one player's VP.
+    private static long comparePositionKeys(Board board, List<Player> players, SplittableRandom random, String where) {
+        LongestRoad longestRoad = board.getLongestRoad();
+        Player toMove = players.get(random.nextInt(players.size()));
+        long original = Zobrist.position(board, players, toMove);
+
+        Player holder = longestRoad.getHolder();
+        Player other = players.get(random.nextInt(players.size()));
+        if (other == holder) {
+            other = null;
+        }
+        // Move the card without moving its 2 VP, so only the holder differs.
+        longestRoad.restoreHolder(other);
+        if (holder != null) {
+            holder.adjustVictoryPoints(LongestRoad.VICTORY_POINTS);
+        }
+        if (other != null) {
+            other.adjustVictoryPoints(-LongestRoad.VICTORY_POINTS);
+        }
+        expect(Zobrist.position(board, players, toMove) != original, where + ": Longest Road holder not in the hash");
+        if (other != null) {
+            other.adjustVictoryPoints(LongestRoad.VICTORY_POINTS);
+        }
+        if (holder != null) {
+            holder.adjustVictoryPoints(-LongestRoad.VICTORY_POINTS);
+        }
+        longestRoad.restoreHolder(holder);
+
+        Player scorer = players.get(random.nextInt(players.size()));
+        scorer.adjustVictoryPoints(1);
+        expect(Zobrist.position(board, players, toMove) != original, where + ": VP not in the hash");
+        scorer.adjustVictoryPoints(-1);
+        expect(Zobrist.position(board, players, toMove) == original, where + ": position hash not restored");
+        return 3;
+    }
+
+    // Random entries stored and probed back one at a time (each key is new, so it always takes its slot): depth,
+    // bound and move come back as stored, an exact value within float rounding, and a bound rounded outwards so it
+    // never claims more than was stored. First every corner of the packing: largest and smallest move and depth with
+    // each bound, which random draws would only hit now and then.
+    private static long transpositionTable(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        TranspositionTable table = new TranspositionTable(10);
+        long comparisons = 0;
+        int[] moves = { TranspositionTable.NO_MOVE, TranspositionTable.moveCode(0, 0),
+                TranspositionTable.moveCode(TranspositionTable.MAX_KIND, TranspositionTable.MAX_TARGET) };
+        int[] depths = { 0, ExpectimaxAgent.MAX_DEPTH, TranspositionTable.MAX_DEPTH };
+        double[] values = { 0, 1, 0.5 };
+        for (int move : moves) {
+            for (int depth : depths) {
+                for (int bound = 0; bound < 3; bound++) {
+                    for (double value : values) {
+                        String where = "move " + move + " depth " + depth + " bound " + bound + " value " + value;
+                        comparisons += roundTrip(table, random.nextLong(), value, depth, bound, move, where);
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < 1_000_000; i++) {
+            double value = random.nextInt(8) == 0 ? random.nextInt(2) : random.nextDouble();
+            int depth = random.nextInt(ExpectimaxAgent.MAX_DEPTH + 1);
+            int bound = random.nextInt(3);
+            int move = random.nextInt(8) == 0 ? TranspositionTable.NO_MOVE : TranspositionTable.moveCode(
+                    random.nextInt(TranspositionTable.MAX_KIND + 1), random.nextInt(TranspositionTable.MAX_TARGET + 1));
+            comparisons += roundTrip(table, random.nextLong(), value, depth, bound, move, "entry " + i);
+        }
+        return comparisons;
+    }
+
+    private static long roundTrip(TranspositionTable table, long key, double value, int depth, int bound, int move,
+            String where) {
+        table.store(key, value, depth, bound, move);
+        long data = table.probe(key);
+        expect(data != 0, where + ": missing");
+        expect(TranspositionTable.depth(data) == depth, where + ": depth");
+        expect(TranspositionTable.bound(data) == bound, where + ": bound");
+        expect(TranspositionTable.move(data) == move, where + ": move");
+        double stored = TranspositionTable.value(data);
+        expect(Math.abs(stored - value) <= 0x1p-24, where + ": value " + stored + " for " + value);
+        expect(value != 0 && value != 1 || stored == value, where + ": won or lost value not exact");
+        expect(bound != TranspositionTable.LOWER || stored <= value, where + ": lower bound rounded up");
+        expect(bound != TranspositionTable.UPPER || stored >= value, where + ": upper bound rounded down");
+        return 7;
+    }
+
+    // Random makes (builds from the move generator or anywhere, and payouts), then unmake them all: after each
+    // unmake the position, hands, VP, building lists, Longest Road holder and move sets must be what they were.
+    private static long moveStack(Board board, List<Player> players, SplittableRandom random, String game) {
+        MoveStack stack = new MoveStack(board);
+        long[][] before = new long[STEPS][];
+        int[] sizes = new int[STEPS];
+        for (int step = 0; step < STEPS; step++) {
+            before[step] = snapshot(board, players);
+            sizes[step] = stack.size();
+            randomMake(board, stack, players.get(random.nextInt(players.size())), random);
+        }
+        long comparisons = 0;
+        for (int step = STEPS - 1; step >= 0; step--) {
+            stack.unmakeTo(sizes[step]);
+            long[] now = snapshot(board, players);
+            for (int i = 0; i < now.length; i++) {
+                expect(now[i] == before[step][i], game + " undo to step " + step + ": snapshot field " + i);
+            }
+            comparisons += now.length + compareMoves(board, players, game + " undo to step " + step);
+            comparisons += compareRoadCounts(board, players, game + " undo to step " + step);
+        }
+        return comparisons;
+    }
+
+    // Every player's Longest Road length against a search of all their trails, the holder against the rule (5+, and
+    // the holder keeps it on a tie) and every player's VP against their buildings plus the card.
+    private static long longestRoad(Board board, List<Player> players, SplittableRandom random, String game) {
+        LongestRoad longest = board.getLongestRoad();
+        for (int step = 0; step < STEPS; step++) {
+            randomBuild(board, players.get(random.nextInt(players.size())), random, game + " step " + step);
+            String where = game + " step " + step;
+            int best = 0;
+            int atBest = 0;
+            for (Player player : players) {
+                int length = longestTrail(board, player);
+                expect(longest.getLength(player) == length, where + ": road length of player " + player.getPlayerID());
+                if (length > best) {
+                    best = length;
+                    atBest = 0;
+                }
+                atBest += length == best ? 1 : 0;
+            }
+            Player holder = longest.getHolder();
+            if (holder != null) {
+                expect(best >= 5 && longest.getLength(holder) == best, where + ": holder does not have the longest road");
+            } else {
+                expect(best < 5 || atBest > 1, where + ": nobody holds a clear longest road of " + best);
+            }
+            for (Player player : players) {
+                int points = player == holder ? 2 : 0;
+                for (int corner = 0; corner < board.getAdjacency().getNodeCount(); corner++) {
+                    Building building = board.getIntersection(corner).getBuilding();
+                    if (building != null && building.getOwner() == player) {
+                        points += building.getVictoryPoints();
+                    }
+                }
+                expect(player.getVictoryPoints() == points, where + ": VP of player " + player.getPlayerID());
+            }
+        }
+        return STEPS * 2L * players.size();
+    }
+
+    // Longest trail of the player's roads (each road once), which may end at an opponent's building but not pass it.
+    static int longestTrail(Board board, Player player) {
+        BoardAdjacency adjacency = board.getAdjacency();
+        boolean[] used = new boolean[adjacency.getEdgeCount()];
+        int best = 0;
+        for (int corner = 0; corner < adjacency.getNodeCount(); corner++) {
+            best = Math.max(best, trailFrom(board, player, corner, used));
+        }
+        return best;
+    }
+
+    private static int trailFrom(Board board, Player player, int corner, boolean[] used) {
+        BoardAdjacency adjacency = board.getAdjacency();
+        int best = 0;
+        for (int k = 0; k < adjacency.degree(corner); k++) {
+            int edgeID = adjacency.neighbourEdge(corner, k);
+            if (used[edgeID] || board.getEdgeOwner(edgeID) != player) {
+                continue;
+            }
+            int next = adjacency.neighbour(corner, k);
+            Building building = board.getIntersection(next).getBuilding();
+            used[edgeID] = true;
+            int onward = building != null && building.getOwner() != player ? 0 : trailFrom(board, player, next, used);
+            best = Math.max(best, 1 + onward);
+            used[edgeID] = false;
+        }
+        return best;
+    }
+
+    // HopDistances and SpatialQueries against plain BFS over BoardAdjacency after every build: all distances and
+    // k-hop sets from a random corner, then a random player's distance to their network and fewest-roads route to a
+    // random corner. The route must be as short as the BFS over free edges says, each road legal once the ones before
+    // it are built, and end at the target; null exactly when the BFS cannot get there. The run must see some of those,
+    // and a player with nothing built gets -1 and null.
+    private static long spatial(int games, long seed) {
+        int[] unreachable = new int[1];
+        long comparisons = run(games, seed, (board, players, random, game) -> spatial(board, players, random, game, unreachable));
+        expect(unreachable[0] > 0, "no unreachable route came up, so the null case went untested");
+
+        Board board = new Board();
+        Player nobody = Catan.createPlayers().get(0);
+        expect(board.distanceToNetwork(nobody, 0) == -1, "distance to an empty network");
+        expect(board.shortestRoadPath(nobody, 0) == null, "route from an empty network");
+        return comparisons + 2;
+    }
+
+    private static long spatial(Board board, List<Player> players, SplittableRandom random, String game, int[] unreachable) {
+        BoardAdjacency adjacency = board.getAdjacency();
+        HopDistances distances = board.getSpatialQueries().getDistances();
+        MoveStack stack = new MoveStack(board);
+        int n = adjacency.getNodeCount();
+        long comparisons = 0;
+        for (int step = 0; step < STEPS; step++) {
+            randomBuild(board, players.get(random.nextInt(players.size())), random, game + " step " + step);
+            int from = random.nextInt(n);
+            String where = game + " step " + step + " from " + from;
+            int[] hops = bfs(board, c -> c == from, false);
+            int farthest = 0;
+            for (int corner = 0; corner < n; corner++) {
+                int expected = hops[corner] < 0 ? HopDistances.UNREACHABLE : hops[corner];
+                expect(distances.distance(from, corner) == expected, where + ": distance to " + corner);
+                farthest = Math.max(farthest, hops[corner]);
+            }
+            for (int k = 0; k <= farthest; k++) {
+                List<Integer> within = board.getIntersectionsWithin(from, k);
+                boolean[] seen = new boolean[n];
+                int count = 0;
+                int last = 0;
+                for (int corner = 0; corner < n; corner++) {
+                    count += hops[corner] >= 0 && hops[corner] <= k ? 1 : 0;
+                }
+                expect(within.size() == count, where + ": " + within.size() + " corners within " + k + ", not " + count);
+                for (int corner : within) {
+                    expect(!seen[corner] && hops[corner] >= last && hops[corner] <= k, where + ": corners within " + k);
+                    seen[corner] = true;
+                    last = hops[corner];
+                }
+            }
+            comparisons += n + farthest + 1;
+
+            Player player = players.get(random.nextInt(players.size()));
+            int target = random.nextInt(n);
+            where = game + " step " + step + " player " + player.getPlayerID() + " to " + target;
+            int[] toNetwork = bfs(board, c -> isOnNetwork(board, player, c), false);
+            expect(board.distanceToNetwork(player, target) == toNetwork[target], where + ": distance to network");
+            int[] routes = bfs(board, c -> isOnNetwork(board, player, c), true);
+            int[] path = board.shortestRoadPath(player, target);
+            if (routes[target] < 0) {
+                expect(path == null, where + ": route where none exists");
+                unreachable[0]++;
+            } else {
+                expect(path != null && path.length == routes[target], where + ": route length");
+                int size = stack.size();
+                for (int edgeID : path) {
+                    expect(isRoadSpot(board, player, edgeID), where + ": road " + edgeID + " on the route is not legal");
+                    stack.makeRoad(player, edgeID);
+                }
+                expect(path.length == 0 || adjacency.edgeStart(path[path.length - 1]) == target
+                        || adjacency.edgeEnd(path[path.length - 1]) == target, where + ": route does not end there");
+                stack.unmakeTo(size);
+            }
+            comparisons += 2;
+        }
+        return comparisons;
+    }
+
+    // The network as SpatialQueries means it: the player's own building, or their road with no opponent's building.
+    private static boolean isOnNetwork(Board board, Player player, int corner) {
+        Building building = board.getIntersection(corner).getBuilding();
+        return building != null ? building.getOwner() == player : hasRoadAt(board, player, corner, -1);
+    }
+
+    // Hops from the nearest source corner, -1 if unreached. With roadsOnly, only over unbuilt edges and never on past
+    // a building that is not a source (a route may end at an opponent's building but not cross it).
+    private static int[] bfs(Board board, CornerTest source, boolean roadsOnly) {
+        BoardAdjacency adjacency = board.getAdjacency();
+        int n = adjacency.getNodeCount();
+        int[] hops = new int[n];
+        int[] queue = new int[n];
+        int tail = 0;
+        Arrays.fill(hops, -1);
+        for (int corner = 0; corner < n; corner++) {
+            if (source.test(corner)) {
+                hops[corner] = 0;
+                queue[tail++] = corner;
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            int corner = queue[head];
+            if (roadsOnly && hops[corner] > 0 && board.getIntersection(corner).getBuilding() != null) {
+                continue;
+            }
+            for (int k = 0; k < adjacency.degree(corner); k++) {
+                int next = adjacency.neighbour(corner, k);
+                if (hops[next] < 0 && !(roadsOnly && board.getEdgeOwner(adjacency.neighbourEdge(corner, k)) != null)) {
+                    hops[next] = hops[corner] + 1;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return hops;
+    }
+
+    // Copies of the game every few builds: same position hash, VP, list sizes, Longest Road and move sets, and moves
+    // played on the copy leave the original alone.
+    private static long gameCopy(Board board, List<Player> players, SplittableRandom random, String game) {
+        long comparisons = 0;
+        for (int step = 0; step < STEPS; step++) {
+            randomBuild(board, players.get(random.nextInt(players.size())), random, game + " step " + step);
+            if (step % 10 != 0) {
+                continue;
+            }
+            String where = game + " copy at step " + step;
+            GameCopy copy = new GameCopy(board, players);
+            Board copied = copy.getBoard();
+            long original = Zobrist.position(board, players, players.get(0));
+            expect(Zobrist.position(copied, copy.getPlayers(), copy.getPlayer(0)) == original, where + ": position hash");
+            for (int seat = 0; seat < players.size(); seat++) {
+                Player from = players.get(seat);
+                Player to = copy.getPlayer(seat);
+                expect(to.getPlayerID() == from.getPlayerID() && to.getVictoryPoints() == from.getVictoryPoints(), where + ": seat " + seat);
+                expect(to.getPlayerSettlements().size() == from.getPlayerSettlements().size(), where + ": settlements of seat " + seat);
+                expect(copied.getLongestRoad().getLength(to) == board.getLongestRoad().getLength(from), where + ": road length");
+            }
+            Player holder = board.getLongestRoad().getHolder();
+            Player copiedHolder = copied.getLongestRoad().getHolder();
+            expect(holder == null ? copiedHolder == null : copiedHolder.getPlayerID() == holder.getPlayerID(), where + ": holder");
+            comparisons += compareMoves(copied, copy.getPlayers(), where);
+
+            MoveStack stack = new MoveStack(copied);
+            for (int make = 0; make < 10; make++) {
+                randomMake(copied, stack, copy.getPlayer(random.nextInt(players.size())), random);
+            }
+            expect(Zobrist.position(board, players, players.get(0)) == original, where + ": original changed by the copy");
+        }
+        return comparisons;
+    }
+
+    // Loads the position into a rollout engine, then plays the same payouts and builds on both: after each step the
+    // engine's hands, legal spots of every kind, VP, road lengths and Longest Road holder must match the board's.
+    // reset() must then bring back the loaded position.
+    private static long rolloutEngine(Board board, List<Player> players, SplittableRandom random, String game) {
+        for (int step = 0; step < STEPS / 3; step++) {
+            randomBuild(board, players.get(random.nextInt(players.size())), random, game + " setup " + step);
+        }
+        RolloutEngine engine = new RolloutEngine(board.getTopology());
+        engine.load(board, players, 0);
+        compareEngine(engine, board, players, game + " load");
+        int[] loaded = new int[players.size()];
+        for (int seat = 0; seat < players.size(); seat++) {
+            loaded[seat] = players.get(seat).getVictoryPoints();
+        }
+
+        MoveGenerator moves = board.getMoveGenerator();
+        MoveList list = new MoveList();
+        TurnAction.Kind[] kinds = { TurnAction.Kind.SETTLEMENT, TurnAction.Kind.CITY, TurnAction.Kind.ROAD };
+        long comparisons = 0;
+        for (int step = 0; step < STEPS; step++) {
+            String where = game + " lockstep " + step;
+            int seat = step % players.size();
+            Player player = players.get(seat);
+            int roll = randomRoll(random);
+            board.getProductionTable().payOut(roll);
+            engine.produce(roll);
+
+            list.fill(moves, player);
+            for (int kind = RolloutEngine.SETTLEMENT; kind <= RolloutEngine.ROAD; kind++) {
+                int count = engine.collect(kind, seat);
+                expect(count == list.count(kinds[kind]), where + ": " + kinds[kind] + " spot count");
+                boolean[] offered = new boolean[Math.max(board.getAdjacency().getNodeCount(), board.getAdjacency().getEdgeCount())];
+                for (int k = 0; k < list.count(kinds[kind]); k++) {
+                    offered[list.target(list.start(kinds[kind]) + k)] = true;
+                }
+                for (int k = 0; k < count; k++) {
+                    expect(offered[engine.candidate(kind, k)], where + ": " + kinds[kind] + " spot " + engine.candidate(kind, k));
+                }
+                comparisons += count;
+            }
+
+            int kind = random.nextInt(3);
+            if (list.count(kinds[kind]) > 0) {
+                int target = list.target(list.start(kinds[kind]) + random.nextInt(list.count(kinds[kind])));
+                if (kind == RolloutEngine.SETTLEMENT) {
+                    player.buildSettlement(board, board.getIntersection(target));
+                    engine.buildSettlement(seat, target);
+                } else if (kind == RolloutEngine.CITY) {
+                    player.buildCity(board, board.getIntersection(target));
+                    engine.buildCity(seat, target);
+                } else {
+                    player.buildRoad(board, target);
+                    engine.buildRoad(seat, target);
+                }
+            }
+            comparisons += compareEngine(engine, board, players, where);
+        }
+
+        engine.reset();
+        for (int seat = 0; seat < players.size(); seat++) {
+            expect(engine.getVictoryPoints(seat) == loaded[seat], game + ": VP after reset");
+        }
+        return comparisons;
+    }
+
+    private static long compareEngine(RolloutEngine engine, Board board, List<Player> players, String where) {
+        LongestRoad longest = board.getLongestRoad();
+        for (int seat = 0; seat < players.size(); seat++) {
+            Player player = players.get(seat);
+            expect(engine.getVictoryPoints(seat) == player.getVictoryPoints(), where + ": VP of seat " + seat);
+            expect(engine.getLongestRoadLength(seat) == longest.getLength(player), where + ": road length of seat " + seat);
+            for (ResourceType resource : ResourceType.values()) {
+                expect(engine.getResource(seat, resource) == player.getHand().get(resource), where + ": " + resource + " of seat " + seat);
+            }
+        }
+        int holder = longest.getHolder() == null ? -1 : players.indexOf(longest.getHolder());
+        expect(engine.getLongestRoadHolder() == holder, where + ": Longest Road holder");
+        return 2L + players.size() * (2L + ResourceType.values().length);
+    }
+
+    private static void randomMake(Board board, MoveStack stack, Player player, SplittableRandom random) {
+        MoveGenerator moves = board.getMoveGenerator();
+        BoardAdjacency adjacency = board.getAdjacency();
+        boolean anywhere = random.nextBoolean();
+        int kind = random.nextInt(10);
+        if (kind < 5) {
+            stack.makeRoad(player, anywhere || moves.roadCount(player) == 0 ? random.nextInt(adjacency.getEdgeCount())
+                    : moves.road(player, random.nextInt(moves.roadCount(player))));
+        } else if (kind < 7) {
+            stack.makeSettlement(player, anywhere || moves.settlementSpotCount(player) == 0 ? random.nextInt(adjacency.getNodeCount())
+                    : moves.settlementSpot(player, random.nextInt(moves.settlementSpotCount(player))));
+        } else if (kind < 8) {
+            stack.makeCity(player, anywhere || moves.upgradeableCount(player) == 0 ? random.nextInt(adjacency.getNodeCount())
+                    : moves.upgradeable(player, random.nextInt(moves.upgradeableCount(player))));
+        } else {
+            stack.makeProduction(randomRoll(random));
+        }
+    }
+
+    // Everything make/unmake has to restore, as numbers: both board hashes, then per player the hand hash, VP and
+    // list sizes, then the Longest Road holder's ID.
+    private static long[] snapshot(Board board, List<Player> players) {
+        long[] values = new long[3 + players.size() * 5];
+        values[0] = board.getZobristHash();
+        values[1] = boardHash(board);
+        int i = 2;
+        for (Player player : players) {
+            values[i++] = handHash(player);
+            values[i++] = player.getVictoryPoints();
+            values[i++] = player.getPlayerSettlements().size();
+            values[i++] = player.getPlayerCities().size();
+            values[i++] = player.getPlayerRoads().size();
+        }
+        Player holder = board.getLongestRoad().getHolder();
+        values[i] = holder == null ? -1 : holder.getPlayerID();
+        return values;
+    }
+
+    // XOR of the keys of every building and road, from the intersections and edge owners.
+    static long boardHash(Board board) {
+        BoardAdjacency adjacency = board.getAdjacency();
+        long hash = 0;
+        for (int corner = 0; corner < adjacency.getNodeCount(); corner++) {
+            Building building = board.getIntersection(corner).getBuilding();
+            if (building != null) {
+                hash ^= Zobrist.building(corner, building.getOwner().getPlayerID(), building instanceof City);
+            }
+        }
+        for (int edgeID = 0; edgeID < adjacency.getEdgeCount(); edgeID++) {
+            Player owner = board.getEdgeOwner(edgeID);
+            if (owner != null) {
+                hash ^= Zobrist.road(edgeID, owner.getPlayerID());
+            }
+        }
+        return hash;
+    }
+
+    static long handHash(Player player) {
+        long hash = 0;
+        for (ResourceType resource : ResourceType.values()) {
+            hash ^= Zobrist.hand(player.getPlayerID(), resource.ordinal(), player.getHand().get(resource));
+        }
+        return hash;
+    }
+
+    // A dice total with 7 left out (Dice re-rolls it).
+    static int randomRoll(SplittableRandom random) {
+        int roll = 2 + random.nextInt(6) + random.nextInt(6);
+        return roll == 7 ? randomRoll(random) : roll;
+    }
+
+    // One build for the player: from the move generator or anywhere, and checks the board took it exactly when the
+    // brute-force rules allow it.
+    static void randomBuild(Board board, Player player, SplittableRandom random, String where) {
+        MoveGenerator moves = board.getMoveGenerator();
+        BoardAdjacency adjacency = board.getAdjacency();
+        boolean anywhere = random.nextBoolean();
+        int kind = random.nextInt(10);
+        if (kind < 6) {
+            int edgeID = anywhere || moves.roadCount(player) == 0 ? random.nextInt(adjacency.getEdgeCount())
+                    : moves.road(player, random.nextInt(moves.roadCount(player)));
+            boolean legal = isRoadSpot(board, player, edgeID);
+            int before = player.getPlayerRoads().size();
+            player.buildRoad(board, edgeID);
+            expect(legal == (player.getPlayerRoads().size() > before), where + ": road " + edgeID + " legal " + legal);
+        } else if (kind < 9) {
+            int corner = anywhere || moves.settlementSpotCount(player) == 0 ? random.nextInt(adjacency.getNodeCount())
+                    : moves.settlementSpot(player, random.nextInt(moves.settlementSpotCount(player)));
+            boolean legal = isSettlementSpot(board, player, corner);
+            int before = player.getVictoryPoints();
+            player.buildSettlement(board, board.getIntersection(corner));
+            expect(legal == (player.getVictoryPoints() > before), where + ": settlement " + corner + " legal " + legal);
+        } else {
+            int corner = anywhere || moves.upgradeableCount(player) == 0 ? random.nextInt(adjacency.getNodeCount())
+                    : moves.upgradeable(player, random.nextInt(moves.upgradeableCount(player)));
+            boolean legal = isUpgradeable(board, player, corner);
+            int before = player.getVictoryPoints();
+            player.buildCity(board, board.getIntersection(corner));
+            expect(legal == (player.getVictoryPoints() > before), where + ": city " + corner + " legal " + legal);
+        }
+    }
+
+    // Every set the move generator keeps, for every player, against the brute-force rules.
+    private static long compareMoves(Board board, List<Player> players, String where) {
+        MoveGenerator moves = board.getMoveGenerator();
+        BoardAdjacency adjacency = board.getAdjacency();
+        long comparisons = 0;
+        for (Player player : players) {
+            int spots = 0;
+            int upgrades = 0;
+            for (int corner = 0; corner < adjacency.getNodeCount(); corner++) {
+                boolean spot = isSettlementSpot(board, player, corner);
+                expect(moves.isSettlementSpot(player, corner) == spot, where + ": settlement spot " + corner + " should be " + spot);
+                spots += spot ? 1 : 0;
+                upgrades += isUpgradeable(board, player, corner) ? 1 : 0;
+            }
+            expect(moves.settlementSpotCount(player) == spots, where + ": settlement spot count");
+            for (int k = 0; k < moves.settlementSpotCount(player); k++) {
+                int corner = moves.settlementSpot(player, k);
+                expect(board.getIntersection(corner).getBuilding() == null, where + ": occupied corner " + corner + " offered");
+            }
+            expect(moves.upgradeableCount(player) == upgrades, where + ": upgradeable count");
+            for (int k = 0; k < moves.upgradeableCount(player); k++) {
+                expect(isUpgradeable(board, player, moves.upgradeable(player, k)), where + ": upgradeable " + k);
+            }
+            int roads = 0;
+            for (int edgeID = 0; edgeID < adjacency.getEdgeCount(); edgeID++) {
+                roads += isRoadSpot(board, player, edgeID) ? 1 : 0;
+            }
+            expect(moves.roadCount(player) == roads, where + ": road count");
+            for (int k = 0; k < moves.roadCount(player); k++) {
+                expect(isRoadSpot(board, player, moves.road(player, k)), where + ": road " + moves.road(player, k));
+            }
+            comparisons += adjacency.getNodeCount() + adjacency.getEdgeCount();
+        }
+        return comparisons;
+    }
+
+    // RoadNetwork's per-corner road counts against the edge owners.
+    private static long compareRoadCounts(Board board, List<Player> players, String where) {
+        BoardAdjacency adjacency = board.getAdjacency();
+        RoadNetwork network = board.getRoadNetwork();
+        for (Player player : players) {
+            for (int corner = 0; corner < adjacency.getNodeCount(); corner++) {
+                int count = 0;
+                for (int k = 0; k < adjacency.degree(corner); k++) {
+                    count += board.getEdgeOwner(adjacency.neighbourEdge(corner, k)) == player ? 1 : 0;
+                }
+                expect(network.roadCount(corner, player) == count, where + ": roads at corner " + corner);
+                expect(network.touches(corner, player) == count > 0, where + ": touches corner " + corner);
+            }
+        }
+        return (long) players.size() * adjacency.getNodeCount();
+    }
+
+    // The settlement rule from scratch: an empty corner, either clear of neighbours while the player has fewer than
+    // two settlements, or not clear but reached by one of their roads.
+    static boolean isSettlementSpot(Board board, Player player, int corner) {
+        if (board.getIntersection(corner).getBuilding() != null) {
+            return false;
+        }
+        BoardAdjacency adjacency = board.getAdjacency();
+        boolean clear = true;
+        for (int k = 0; k < adjacency.degree(corner); k++) {
+            clear &= board.getIntersection(adjacency.neighbour(corner, k)).getBuilding() == null;
+        }
+        return clear ? player.getPlayerSettlements().size() < 2 : hasRoadAt(board, player, corner, -1);
+    }
+
+    static boolean isUpgradeable(Board board, Player player, int corner) {
+        Building building = board.getIntersection(corner).getBuilding();
+        return building instanceof Settlement && building.getOwner() == player;
+    }
+
+    // The road rule from scratch: a free edge with the player's building at an end, or another of their roads at an
+    // end that no opponent has built on.
+    static boolean isRoadSpot(Board board, Player player, int edgeID) {
+        if (board.getEdgeOwner(edgeID) != null) {
+            return false;
+        }
+        BoardAdjacency adjacency = board.getAdjacency();
+        for (int corner : new int[] { adjacency.edgeStart(edgeID), adjacency.edgeEnd(edgeID) }) {
+            Building building = board.getIntersection(corner).getBuilding();
+            if (building != null && building.getOwner() == player) {
+                return true;
+            }
+            if (building == null && hasRoadAt(board, player, corner, edgeID)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // One of the player's roads, other than skipEdge, ends at the corner.
+    static boolean hasRoadAt(Board board, Player player, int corner, int skipEdge) {
+        BoardAdjacency adjacency = board.getAdjacency();
+        for (int k = 0; k < adjacency.degree(corner); k++) {
+            int edgeID = adjacency.neighbourEdge(corner, k);
+            if (edgeID != skipEdge && board.getEdgeOwner(edgeID) == player) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    interface CornerTest {
+        boolean test(int corner);
+    }
+
+    private static int randomCorner(Board board, SplittableRandom random, CornerTest test) {
+        int n = board.getAdjacency().getNodeCount();
+        int start = random.nextInt(n);
+        for (int i = 0; i < n; i++) {
+            int corner = (start + i) % n;
+            if (test.test(corner)) {
+                return corner;
+            }
+        }
+        throw new IllegalStateException("No corner left for an opening settlement");
+    }
+
+    static void expect(boolean ok, String message) {
+        if (!ok) {
+            throw new IllegalStateException("Check failed: " + message);
+        }
+    }
+}
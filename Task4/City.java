@@ -9,4 +9,9 @@ class City extends Building {
         return 2;
     }
 
+    @Override
+    public int getResourceYield() {
+        return 2;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,8 @@
+// Prints the game log to the console (the normal Catan.main output).
+class ConsoleEventSink extends TextEventSink {
+
+    @Override
+    protected void writeLine(String line) {
+        System.out.println(line);
+    }
+}
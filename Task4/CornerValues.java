@@ -0,0 +1,57 @@
+// What a settlement on each corner of a map is worth before any building: its pips (ways out of Dice.OUTCOMES that
+// a roll pays the corner, one card per hex) split by resource, and how many different resources it produces. Taken
+// from the hexes around each corner and their number tokens, so it is fixed per map; BoardTopology builds it on
+// first use.
+final class CornerValues {
+    static final int RESOURCES = ResourceType.values().length;
+
+    private final int nodeCount;
+    private final int[] pips;
+    // resourcePips[corner * RESOURCES + resource ordinal].
+    private final int[] resourcePips;
+    // Bit r set if the corner produces resource ordinal r.
+    private final int[] resourceMask;
+
+    public CornerValues(BoardTopology topology) {
+        nodeCount = topology.getNodeCount();
+        pips = new int[nodeCount];
+        resourcePips = new int[nodeCount * RESOURCES];
+        resourceMask = new int[nodeCount];
+        for (int corner = 0; corner < nodeCount; corner++) {
+            int[] rolls = topology.getCornerRolls(corner);
+            int[] resources = topology.getCornerResources(corner);
+            for (int k = 0; k < rolls.length; k++) {
+                int ways = Dice.ways(rolls[k]);
+                pips[corner] += ways;
+                resourcePips[corner * RESOURCES + resources[k]] += ways;
+                resourceMask[corner] |= 1 << resources[k];
+            }
+        }
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public int getPips(int corner) {
+        return pips[corner];
+    }
+
+    public int getResourcePips(int corner, int resource) {
+        return resourcePips[corner * RESOURCES + resource];
+    }
+
+    public int getResourceMask(int corner) {
+        return resourceMask[corner];
+    }
+
+    // Number of different resources the corner produces.
+    public int getDiversity(int corner) {
+        return Integer.bitCount(resourceMask[corner]);
+    }
+
+    // Expected cards per roll from a settlement on the corner.
+    public double getExpectedCards(int corner) {
+        return (double) pips[corner] / Dice.OUTCOMES;
+    }
+}
@@ -1,12 +1,21 @@
-import java.util.Random;
+import java.util.SplittableRandom;
 
+// Two dice, re-rolled on a 7. Takes its random source from the game so seeded games replay exactly.
 class Dice {
+    // Ways to roll each total out of OUTCOMES, with 7 re-rolled.
+    static final int OUTCOMES = 30;
+    private static final int[] WAYS = { 0, 0, 1, 2, 3, 4, 5, 0, 5, 4, 3, 2, 1 };
+
     private int dice1;
     private int dice2;
-    private Random random;
+    private SplittableRandom random;
 
     public Dice() {
-        this.random = new Random();
+        this(new SplittableRandom());
+    }
+
+    public Dice(SplittableRandom random) {
+        this.random = random;
     }
 
     public int roll() {
@@ -17,4 +26,9 @@ class Dice {
 
         return dice1 + dice2;
     }
+
+    // Ways roll() can come up with the total, out of OUTCOMES (0 for 7 and anything outside 2-12).
+    static int ways(int total) {
+        return total >= 0 && total < WAYS.length ? WAYS[total] : 0;
+    }
 }
@@ -0,0 +1,434 @@
+// Expectimax bot for short tactical lookahead, e.g. racing another player for the last good corner. It searches a
+// private copy of the game (GameCopy, moves played and taken back through a MoveStack): decision nodes for each
+// player's builds they can pay for (plus passing), then a chance node over the next player's roll, weighting each
+// total by its odds in Dice.roll. With four players there is no single opponent, so the search is paranoid: the
+// agent's own nodes take the best value for it and every other player's node the worst, which makes the game
+// two-sided and lets decision nodes use alpha-beta and chance nodes Star1 (*-minimax): values are bounded in [0, 1],
+// so once the rolls searched so far already decide which side of the window the average falls, the rest are skipped.
+//
+// Depth counts decisions. Iterative deepening searches depth 1, 2, ... until the time budget runs out and plays the
+// best move of the deepest search that finished (stopping early if a search saw nothing but finished games). Results
+// go in a TranspositionTable keyed by the position's Zobrist hash (board, hands, VP, Longest Road holder, player to
+// move) and the agent's own ID (values are from its side), and the best move stored there is tried first next
+// time. The table is lock-free, so agents in other seats or threads can share one.
+final class ExpectimaxAgent implements Agent {
+    static final int WIN_POINTS = 10;
+    static final int MAX_DEPTH = 64;
+    // 2^20 slots, 16 MB.
+    static final int DEFAULT_TABLE_BITS = 20;
+
+    private static final double WIN = 1;
+    private static final double LOSS = 0;
+    // Most likely rolls first, so chance nodes can stop sooner (7 is re-rolled and never comes up).
+    private static final int[] ROLL_ORDER = { 6, 8, 5, 9, 4, 10, 3, 11, 2, 12 };
+    // Action kinds are TurnAction.Kind ordinals, or PASS_KIND.
+    private static final int SETTLEMENT = 0;
+    private static final int CITY = 1;
+    private static final int ROAD = 2;
+    private static final int PASS_KIND = 3;
+    private static final TurnAction.Kind[] KINDS = TurnAction.Kind.values();
+    private static final int[] BUILD_ORDER = { CITY, SETTLEMENT, ROAD };
+    // Evaluation of a position that is not won yet: each player's VP, plus production (ways out of 30 that their
+    // buildings pay, a city counting twice), corners they could settle next (up to SPOT_CAP; roads are what opens
+    // them) and cards in hand at these weights; then the agent's score minus the best opponent's, squashed into (0, 1).
+    private static final double PRODUCTION_WEIGHT = 0.04;
+    private static final double SPOT_WEIGHT = 0.3;
+    private static final int SPOT_CAP = 3;
+    private static final double CARD_WEIGHT = 0.05;
+    private static final double SCORE_SCALE = 3;
+    // Moves played between looks at the clock.
+    private static final int CLOCK_INTERVAL = 32;
+
+    private final long budgetNanos;
+    private final int maxDepth;
+    private final TranspositionTable table;
+
+    // Per decision.
+    private GameCopy game;
+    private Board board;
+    private MoveStack stack;
+    private int rootSeat;
+    private long perspective;
+    private long deadline;
+    private boolean outOfTime;
+    private boolean sawHorizon;
+    private long nodes;
+    // Ways out of 30 that a building on each corner gets paid, for the map evaluated last.
+    private BoardTopology pipTopology;
+    private int[] cornerPips;
+    private double[] scores = new double[0];
+
+    // Moves at each ply, copied out of the live MoveList before any of them is played.
+    private final MoveList moves = new MoveList();
+    private int[][] plyKinds = new int[MAX_DEPTH + 1][16];
+    private int[][] plyTargets = new int[MAX_DEPTH + 1][16];
+
+    private int lastDepth;
+    private long totalDepth;
+    private long searches;
+    private long totalNodes;
+    private long totalNanos;
+
+    private ExpectimaxAgent(long budgetNanos, int maxDepth, TranspositionTable table) {
+        if (maxDepth < 1 || maxDepth > MAX_DEPTH) {
+            throw new IllegalArgumentException("Depth must be 1 to " + MAX_DEPTH + ", not " + maxDepth);
+        }
+        this.budgetNanos = budgetNanos;
+        this.maxDepth = maxDepth;
+        this.table = table;
+    }
+
+    // Deepens until the time is up on every decision. Pass a shared table to pool results between agents.
+    public static ExpectimaxAgent timed(long millisPerMove, TranspositionTable table) {
+        return new ExpectimaxAgent(millisPerMove * 1_000_000L, MAX_DEPTH, table);
+    }
+
+    public static ExpectimaxAgent timed(long millisPerMove) {
+        return timed(millisPerMove, new TranspositionTable(DEFAULT_TABLE_BITS));
+    }
+
+    // Always searches to this depth, however long it takes.
+    public static ExpectimaxAgent fixedDepth(int depth, TranspositionTable table) {
+        return new ExpectimaxAgent(0, depth, table);
+    }
+
+    @Override
+    public int chooseMove(GameView view, MoveList legal) {
+        // Root moves come from the real list (origin is the index there).
+        int[] origin = new int[legal.size() + 1];
+        int[] kinds = new int[legal.size() + 1];
+        int[] targets = new int[legal.size() + 1];
+        int count = 0;
+        for (int i = 0; i < legal.size(); i++) {
+            if (view.canAfford(legal.kind(i))) {
+                kinds[count] = legal.kind(i).ordinal();
+                targets[count] = legal.target(i);
+                origin[count++] = i;
+            }
+        }
+        kinds[count] = PASS_KIND;
+        origin[count++] = PASS;
+        if (count == 1) {
+            return PASS;
+        }
+
+        long start = System.nanoTime();
+        game = view.copyGame();
+        board = game.getBoard();
+        stack = new MoveStack(board);
+        rootSeat = view.getSeat();
+        perspective = Long.rotateLeft(Zobrist.toMove(view.getPlayerID()), 32);
+        deadline = budgetNanos > 0 ? start + budgetNanos : Long.MAX_VALUE;
+        outOfTime = false;
+        nodes = 0;
+        prepareEvaluation();
+
+        int best = 0;
+        lastDepth = 0;
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            sawHorizon = false;
+            int choice = searchRoot(kinds, targets, count, depth);
+            if (outOfTime) {
+                // Out of time on depth 1: the best of the moves it got through beats no search at all.
+                if (depth == 1) {
+                    best = choice;
+                }
+                break;
+            }
+            best = choice;
+            lastDepth = depth;
+            // Best move first next time round.
+            swap(kinds, targets, origin, 0, best);
+            best = 0;
+            if (!sawHorizon) {
+                break;
+            }
+        }
+        totalDepth += lastDepth;
+        searches++;
+        totalNodes += nodes;
+        totalNanos += System.nanoTime() - start;
+        game = null;
+        board = null;
+        stack = null;
+        return origin[best];
+    }
+
+    // Depth of the deepest search that finished on the latest decision (0 if it had only one choice or ran out of
+    // time on depth 1).
+    public int getLastDepth() {
+        return lastDepth;
+    }
+
+    // Over every decision that was searched.
+    public double getAverageDepth() {
+        return searches == 0 ? 0 : (double) totalDepth / searches;
+    }
+
+    // Moves played in search per second.
+    public double getNodesPerSecond() {
+        return totalNanos == 0 ? 0 : totalNodes * 1e9 / totalNanos;
+    }
+
+    public long getTotalNodes() {
+        return totalNodes;
+    }
+
+    // Index of the best root move at this depth. The first move is searched with the full window, the rest only have
+    // to beat it.
+    private int searchRoot(int[] kinds, int[] targets, int count, int depth) {
+        Player player = game.getPlayer(rootSeat);
+        double alpha = LOSS;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        int best = 0;
+        for (int i = 0; i < count; i++) {
+            double value = afterMove(player, rootSeat, kinds[i], targets[i], depth, alpha, WIN);
+            if (outOfTime) {
+                return best;
+            }
+            if (value > bestValue) {
+                bestValue = value;
+                best = i;
+                alpha = Math.max(alpha, value);
+            }
+        }
+        return best;
+    }
+
+    // Value of the player in seat to move, with depth decisions left (at least 1), in the window (alpha, beta).
+    private double decision(int seat, int depth, double alpha, double beta) {
+        long key = positionKey(seat);
+        long entry = table.probe(key);
+        int hashMove = TranspositionTable.NO_MOVE;
+        if (entry != 0) {
+            hashMove = TranspositionTable.move(entry);
+            if (TranspositionTable.depth(entry) >= depth) {
+                double value = TranspositionTable.value(entry);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT || (bound == TranspositionTable.LOWER ? value >= beta : value <= alpha)) {
+                    // The stored search may have stopped at its own horizon, so keep deepening.
+                    sawHorizon = true;
+                    return value;
+                }
+            }
+        }
+
+        Player player = game.getPlayer(seat);
+        int count = collectMoves(player, depth, hashMove);
+        int[] kinds = plyKinds[depth];
+        int[] targets = plyTargets[depth];
+        boolean maximizing = seat == rootSeat;
+        double low = alpha;
+        double high = beta;
+        double best = maximizing ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        int bestMove = TranspositionTable.NO_MOVE;
+        for (int i = 0; i < count && low < high; i++) {
+            double value = afterMove(player, seat, kinds[i], targets[i], depth, low, high);
+            if (outOfTime) {
+                return LOSS;
+            }
+            if (maximizing ? value > best : value < best) {
+                best = value;
+                bestMove = TranspositionTable.moveCode(kinds[i], targets[i]);
+                if (maximizing) {
+                    low = Math.max(low, value);
+                } else {
+                    high = Math.min(high, value);
+                }
+            }
+        }
+
+        int bound = best <= alpha ? TranspositionTable.UPPER : best >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+        table.store(key, best, depth, bound, bestMove);
+        return best;
+    }
+
+    // Plays the move, scores what follows (a win, the evaluation at the horizon, or the next player's roll) and takes
+    // it back.
+    private double afterMove(Player player, int seat, int kind, int target, int depth, double alpha, double beta) {
+        if (++nodes % CLOCK_INTERVAL == 0 && System.nanoTime() > deadline) {
+            outOfTime = true;
+            return LOSS;
+        }
+        int base = stack.size();
+        play(player, kind, target);
+        double value;
+        if (player.getVictoryPoints() >= WIN_POINTS) {
+            value = seat == rootSeat ? WIN : LOSS;
+        } else if (depth == 1) {
+            sawHorizon = true;
+            value = evaluate();
+        } else {
+            value = chance((seat + 1) % game.getPlayerCount(), depth - 1, alpha, beta);
+        }
+        stack.unmakeTo(base);
+        return value;
+    }
+
+    // Star1: the average over rolls of the next decision's value. Before each roll the rolls still to come could
+    // add anything from LOSS to WIN, which gives the window this roll must land in for the average to stay inside
+    // (alpha, beta); if it lands outside, the average is already known to be outside and the bound is returned.
+    private double chance(int seat, int depth, double alpha, double beta) {
+        double sum = 0;
+        double left = 1;
+        for (int roll : ROLL_ORDER) {
+            double p = (double) Dice.ways(roll) / Dice.OUTCOMES;
+            left -= p;
+            double low = (alpha - sum - WIN * left) / p;
+            double high = (beta - sum - LOSS * left) / p;
+            if (low >= WIN) {
+                return sum + WIN * (p + left);
+            }
+            if (high <= LOSS) {
+                return sum + LOSS * (p + left);
+            }
+            stack.makeProduction(roll);
+            double value = decision(seat, depth, Math.max(low, LOSS), Math.min(high, WIN));
+            stack.unmake();
+            if (outOfTime) {
+                return LOSS;
+            }
+            sum += p * value;
+            if (value <= low) {
+                return sum + WIN * left;
+            }
+            if (value >= high) {
+                return sum + LOSS * left;
+            }
+        }
+        return sum;
+    }
+
+    // Copies the player's affordable moves and passing into this ply's buffers: the table's move first, then
+    // cities, settlements, roads and passing last.
+    private int collectMoves(Player player, int ply, int hashMove) {
+        moves.fill(board.getMoveGenerator(), player);
+        if (plyKinds[ply].length < moves.size() + 1) {
+            plyKinds[ply] = new int[moves.size() * 2 + 1];
+            plyTargets[ply] = new int[moves.size() * 2 + 1];
+        }
+        int[] kinds = plyKinds[ply];
+        int[] targets = plyTargets[ply];
+        int count = 0;
+        for (int kind : BUILD_ORDER) {
+            TurnAction.Kind buildKind = KINDS[kind];
+            if (!player.canAfford(buildKind)) {
+                continue;
+            }
+            int first = moves.start(buildKind);
+            for (int i = first; i < first + moves.count(buildKind); i++) {
+                kinds[count] = kind;
+                targets[count++] = moves.target(i);
+            }
+        }
+        kinds[count] = PASS_KIND;
+        targets[count++] = 0;
+
+        if (hashMove != TranspositionTable.NO_MOVE) {
+            int hashKind = TranspositionTable.moveKind(hashMove);
+            int hashTarget = TranspositionTable.moveTarget(hashMove);
+            for (int i = 0; i < count; i++) {
+                if (kinds[i] == hashKind && targets[i] == hashTarget) {
+                    swap(kinds, targets, null, 0, i);
+                    break;
+                }
+            }
+        }
+        return count;
+    }
+
+    private void play(Player player, int kind, int target) {
+        switch (kind) {
+            case SETTLEMENT:
+                stack.makeSettlement(player, target);
+                break;
+            case CITY:
+                stack.makeCity(player, target);
+                break;
+            case ROAD:
+                stack.makeRoad(player, target);
+                break;
+            default:
+                break;
+        }
+    }
+
+    // Zobrist.position (board, hands, VP, Longest Road holder, player to move) without its iterator, plus whose point
+    // of view the value is from.
+    private long positionKey(int seat) {
+        long key = board.getZobristHash() ^ Zobrist.toMove(game.getPlayer(seat).getPlayerID()) ^ perspective;
+        key ^= Zobrist.longestRoad(board.getLongestRoad().getHolder());
+        for (int p = 0; p < game.getPlayerCount(); p++) {
+            Player player = game.getPlayer(p);
+            key ^= player.getHand().getZobristHash();
+            key ^= Zobrist.victoryPoints(player.getPlayerID(), player.getVictoryPoints());
+        }
+        return key;
+    }
+
+    private void prepareEvaluation() {
+        if (scores.length < game.getPlayerCount()) {
+            scores = new double[game.getPlayerCount()];
+        }
+        BoardTopology topology = board.getTopology();
+        if (pipTopology == topology) {
+            return;
+        }
+        cornerPips = new int[topology.getNodeCount()];
+        for (int corner = 0; corner < cornerPips.length; corner++) {
+            for (int roll : topology.getCornerRolls(corner)) {
+                cornerPips[corner] += Dice.ways(roll);
+            }
+        }
+        pipTopology = topology;
+    }
+
+    private double evaluate() {
+        int players = game.getPlayerCount();
+        for (int seat = 0; seat < players; seat++) {
+            Player player = game.getPlayer(seat);
+            int spots = Math.min(SPOT_CAP, board.getMoveGenerator().settlementSpotCount(player));
+            scores[seat] = player.getVictoryPoints() + SPOT_WEIGHT * spots + CARD_WEIGHT * player.getTotalResources();
+        }
+        for (int corner = 0; corner < cornerPips.length; corner++) {
+            Building building = board.getIntersection(corner).getBuilding();
+            if (building == null || cornerPips[corner] == 0) {
+                continue;
+            }
+            int seat = seatOf(building.getOwner());
+            if (seat >= 0) {
+                scores[seat] += PRODUCTION_WEIGHT * (building instanceof City ? 2 : 1) * cornerPips[corner];
+            }
+        }
+        double rival = Double.NEGATIVE_INFINITY;
+        for (int seat = 0; seat < players; seat++) {
+            if (seat != rootSeat) {
+                rival = Math.max(rival, scores[seat]);
+            }
+        }
+        return 1 / (1 + Math.exp((rival - scores[rootSeat]) / SCORE_SCALE));
+    }
+
+    private int seatOf(Player player) {
+        for (int seat = 0; seat < game.getPlayerCount(); seat++) {
+            if (game.getPlayer(seat) == player) {
+                return seat;
+            }
+        }
+        return -1;
+    }
+
+    private static void swap(int[] kinds, int[] targets, int[] origin, int a, int b) {
+        int kind = kinds[a];
+        kinds[a] = kinds[b];
+        kinds[b] = kind;
+        int target = targets[a];
+        targets[a] = targets[b];
+        targets[b] = target;
+        if (origin != null) {
+            int from = origin[a];
+            origin[a] = origin[b];
+            origin[b] = from;
+        }
+    }
+}
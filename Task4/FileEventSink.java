@@ -0,0 +1,29 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Writes the game log to a file through a buffer. Call close() when the game is over to flush it.
+class FileEventSink extends TextEventSink implements AutoCloseable {
+    private final BufferedWriter writer;
+
+    public FileEventSink(Path file) throws IOException {
+        writer = Files.newBufferedWriter(file);
+    }
+
+    @Override
+    protected void writeLine(String line) {
+        try {
+            writer.write(line);
+            writer.newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,63 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+// A copy of a game that search can play on: a new Board on the same map with the same buildings, roads and Longest
+// Road holder, and a copy of every player with the same ID, cards and VP. Nothing is shared with the original, so
+// each search thread takes its own copy and plays moves on it through a MoveStack while the real game is untouched.
+final class GameCopy {
+    private final Board board;
+    private final Player[] players;
+    private final List<Player> order;
+
+    // players is the turn order; every owner of a building or road on the source must be in it.
+    public GameCopy(Board source, List<Player> players) {
+        Player[] originals = players.toArray(new Player[0]);
+        this.players = new Player[originals.length];
+        for (int i = 0; i < originals.length; i++) {
+            this.players[i] = new Player(originals[i].getPlayerID(), 0, new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new HashMap<>());
+            for (ResourceType resource : ResourceType.values()) {
+                this.players[i].addResource(resource, originals[i].getHand().get(resource));
+            }
+        }
+
+        order = Collections.unmodifiableList(Arrays.asList(this.players));
+
+        board = new Board(source.getTopology());
+        board.copyPosition(source, originals, this.players);
+        // Set VP last: the copied roads may have passed Longest Road around on the way.
+        for (int i = 0; i < originals.length; i++) {
+            this.players[i].adjustVictoryPoints(originals[i].getVictoryPoints() - this.players[i].getVictoryPoints());
+        }
+    }
+
+    public Board getBoard() {
+        return board;
+    }
+
+    public int getPlayerCount() {
+        return players.length;
+    }
+
+    // The copied players in turn order (read-only).
+    public List<Player> getPlayers() {
+        return order;
+    }
+
+    // Player in this turn-order position.
+    public Player getPlayer(int seat) {
+        return players[seat];
+    }
+
+    // Turn-order position of the player with this ID, or -1.
+    public int seatOf(int playerID) {
+        for (int seat = 0; seat < players.length; seat++) {
+            if (players[seat].getPlayerID() == playerID) {
+                return seat;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,18 @@
+import java.util.List;
+
+// Where the simulator reports what happens. Events come in as plain values so a sink that ignores them
+// (NoOpEventSink) costs nothing: no strings are built and nothing is written to stdout.
+interface GameEventSink {
+
+    void roundStarted(int round);
+
+    // One player's turn: the roll and what they did. The action object is reused, so copy anything you keep.
+    void turnPlayed(int round, Player player, int roll, TurnAction action);
+
+    void roundEnded(int round, List<Player> players);
+
+    void gameWon(Player winner);
+
+    // Hit the round limit with nobody on 10 VP.
+    void gameDrawn(int maxRounds);
+}
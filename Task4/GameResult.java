@@ -0,0 +1,35 @@
+// What one finished game looks like: who won (0 if nobody), after how many rounds, and everyone's final VP by seat.
+final class GameResult {
+    private final int winnerSeat;
+    private final int winnerID;
+    private final int rounds;
+    private final int[] finalVictoryPoints;
+
+    public GameResult(int winnerSeat, int winnerID, int rounds, int[] finalVictoryPoints) {
+        this.winnerSeat = winnerSeat;
+        this.winnerID = winnerID;
+        this.rounds = rounds;
+        this.finalVictoryPoints = finalVictoryPoints;
+    }
+
+    // Seat (0 = first to play) of the winner, or -1 if the round limit was hit.
+    public int getWinnerSeat() {
+        return winnerSeat;
+    }
+
+    public int getWinnerID() {
+        return winnerID;
+    }
+
+    public boolean hasWinner() {
+        return winnerSeat >= 0;
+    }
+
+    public int getRounds() {
+        return rounds;
+    }
+
+    public int[] getFinalVictoryPoints() {
+        return finalVictoryPoints;
+    }
+}
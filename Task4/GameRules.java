@@ -1,5 +1,3 @@
-import java.util.List;
-
 // Checks if a spot is ok to build on (empty, not next to another building, or connected by your road).
 class GameRules {
 
@@ -14,52 +12,50 @@ class GameRules {
     // True if this corner is empty and every neighbour corner is also empty
     // (distance rule).
     public boolean checkEmptyIntersections(int intersectionID, Board board) {
-        Intersection currentIntersection = board.getIntersection(intersectionID);
-
-        if (currentIntersection.getBuilding() == null) {
-            List<Integer> neighbourIntersections = board.getNeighbouringIntersections(intersectionID);
-
-            for (Integer neighbourID : neighbourIntersections) {
-                Intersection neighbour = board.getIntersection(neighbourID);
+        BitBoard bits = board.getBitBoard();
+        if (bits != null) {
+            return bits.isDistanceRuleClear(intersectionID);
+        }
 
-                if (neighbour.getBuilding() != null) {
-                    return false;
-                }
+        // Map too big for bit masks: look at the corner and its neighbours.
+        if (board.getIntersection(intersectionID).getBuilding() != null) {
+            return false;
+        }
+        BoardAdjacency adjacency = board.getAdjacency();
+        for (int k = 0; k < adjacency.degree(intersectionID); k++) {
+            if (board.getIntersection(adjacency.neighbour(intersectionID, k)).getBuilding() != null) {
+                return false;
             }
-            return true;
         }
-        return false;
+        return true;
     }
 
     // True if the player has at least one road that touches this corner.
     public boolean isConnected(int intersectionID, Player player, Board board) {
-        List<Road> playerRoads = player.getPlayerRoads();
-
-        for (Road road : playerRoads) {
-            int roadStart = road.getLocation().getStart();
-            int roadEnd = road.getLocation().getEnd();
-
-            if (roadStart == intersectionID || roadEnd == intersectionID) {
-                return true;
-            }
-        }
-        return false;
+        return board.getRoadNetwork().touches(intersectionID, player);
     }
 
     // Edge must exist on board, not be built yet, and touch your settlement or one
     // of your roads.
     public boolean checkRoadPlacement(Edge roadEdge, Player player, Board board) {
-        int startID = roadEdge.getStart();
-        int endID = roadEdge.getEnd();
-
-        if (!board.isValidEdge(startID, endID)) {
+        int edgeID = board.getAdjacency().edgeId(roadEdge.getStart(), roadEdge.getEnd());
+        if (edgeID < 0) {
             return false;
         }
+        return checkRoadPlacement(edgeID, player, board);
+    }
 
-        if (board.isEdgeOccupied(startID, endID)) {
+    // Same check by edge ID. Only looks at the two end corners, so it does not
+    // slow down as more roads are built.
+    public boolean checkRoadPlacement(int edgeID, Player player, Board board) {
+        if (board.isEdgeOccupied(edgeID)) {
             return false;
         }
 
+        BoardAdjacency adjacency = board.getAdjacency();
+        int startID = adjacency.edgeStart(edgeID);
+        int endID = adjacency.edgeEnd(edgeID);
+
         Intersection intersectionStart = board.getIntersection(startID);
         Intersection intersectionEnd = board.getIntersection(endID);
 
@@ -70,34 +66,15 @@ class GameRules {
             return true;
         }
 
-        for (Road road : player.getPlayerRoads()) {
-            int startPoint = road.getLocation().getStart();
-            int endPoint = road.getLocation().getEnd();
+        // Otherwise one of your roads has to meet this edge at a corner that an
+        // opponent has not built on.
+        return hasRoadThrough(startID, intersectionStart, player, board) || hasRoadThrough(endID, intersectionEnd, player, board);
+    }
 
-            if (startPoint == startID || startPoint == endID) {
-                int sharedNode;
-                if (startPoint == startID) {
-                    sharedNode = startID;
-                } else {
-                    sharedNode = endID;
-                }
-                Intersection shared = board.getIntersection(sharedNode);
-                if (shared.getBuilding() == null || shared.getPlayer() == player) {
-                    return true;
-                }
-            } else if (endPoint == startID || endPoint == endID) {
-                int sharedNode;
-                if (endPoint == startID) {
-                    sharedNode = startID;
-                } else {
-                    sharedNode = endID;
-                }
-                Intersection shared = board.getIntersection(sharedNode);
-                if (shared.getBuilding() == null || shared.getPlayer() == player) {
-                    return true;
-                }
-            }
+    private boolean hasRoadThrough(int intersectionID, Intersection shared, Player player, Board board) {
+        if (shared.getBuilding() != null && shared.getPlayer() != player) {
+            return false;
         }
-        return false;
+        return board.getRoadNetwork().touches(intersectionID, player);
     }
 }
\ No newline at end of file
@@ -0,0 +1,104 @@
+import java.util.List;
+import java.util.SplittableRandom;
+
+// What an agent gets to look at: the player to move (cards, points, what they can pay for) and read-only queries on
+// the board. It never hands out the Board or the Player themselves, so an agent cannot build behind Turn's back; a
+// search that wants to try moves asks for a copy of the game instead. Turn keeps one view per board and points it at
+// whoever is moving, so asking for a move allocates nothing.
+final class GameView {
+    private final Board board;
+    private List<Player> players;
+    private Player player;
+    private int seat;
+    private int round;
+
+    public GameView(Board board) {
+        this.board = board;
+    }
+
+    // players is the turn order (every owner of a building or road must be in it) and seat the mover's place in it.
+    void set(List<Player> players, int seat, int round) {
+        this.players = players;
+        this.player = players.get(seat);
+        this.seat = seat;
+        this.round = round;
+    }
+
+    public int getRound() {
+        return round;
+    }
+
+    public int getPlayerID() {
+        return player.getPlayerID();
+    }
+
+    // Position of the moving player in the turn order, which is also their seat in copyGame().
+    public int getSeat() {
+        return seat;
+    }
+
+    public int getVictoryPoints() {
+        return player.getVictoryPoints();
+    }
+
+    public int getResource(ResourceType resource) {
+        return player.getHand().get(resource);
+    }
+
+    public int getTotalResources() {
+        return player.getTotalResources();
+    }
+
+    public boolean canAfford(TurnAction.Kind kind) {
+        return player.canAfford(kind);
+    }
+
+    // The moving player's own random stream (split from the game seed in batch runs), so random choices replay.
+    public SplittableRandom getRandom() {
+        return player.getRandom();
+    }
+
+    // A private copy of the whole game (board and every player) for a search to play moves on; see GameCopy.
+    public GameCopy copyGame() {
+        return new GameCopy(board, players);
+    }
+
+    public BoardAdjacency getAdjacency() {
+        return board.getAdjacency();
+    }
+
+    // ID of the player with a building on the corner, or 0 if it is empty.
+    public int getBuildingOwnerID(int intersectionID) {
+        Building building = board.getIntersection(intersectionID).getBuilding();
+        return building == null ? 0 : building.getOwner().getPlayerID();
+    }
+
+    public boolean isCity(int intersectionID) {
+        return board.getIntersection(intersectionID).getBuilding() instanceof City;
+    }
+
+    // ID of the player with a road on the edge, or 0 if it is empty.
+    public int getRoadOwnerID(int edgeID) {
+        Player owner = board.getEdgeOwner(edgeID);
+        return owner == null ? 0 : owner.getPlayerID();
+    }
+
+    public int getDistance(int start, int end) {
+        return board.getDistance(start, end);
+    }
+
+    // Roads the moving player still needs to reach the corner (see SpatialQueries.distanceToNetwork).
+    public int distanceToNetwork(int intersectionID) {
+        return board.distanceToNetwork(player, intersectionID);
+    }
+
+    public int getLongestRoadLength() {
+        return board.getLongestRoad().getLength(player);
+    }
+
+    // ID of the Longest Road holder, or 0 if nobody has it.
+    public int getLongestRoadHolderID() {
+        Player holder = board.getLongestRoad().getHolder();
+        return holder == null ? 0 : holder.getPlayerID();
+    }
+}
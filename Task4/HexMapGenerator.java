@@ -0,0 +1,140 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+// Builds BoardTopology maps of any size from axial hex coordinates (q, r), for testing how the rules and agents scale.
+// Corners are numbered in the order they are first met and listed around each hex in order, the same shape as the
+// hand-written table behind BoardTopology.STANDARD, so Board, Production and GameRules work on them unchanged.
+// Tiles are dealt from the standard bags (resources with deserts, and number tokens), repeated as often as needed
+// and shuffled with the given seed.
+final class HexMapGenerator {
+    // Corner offsets around a pointy-top hex, in lattice units (x in half hex widths, y in quarter hex heights).
+    private static final int[] CORNER_DX = { 1, 1, 0, -1, -1, 0 };
+    private static final int[] CORNER_DY = { -1, 1, 2, 1, -1, -2 };
+
+    private static final ResourceType[] STANDARD_TILES = {
+        ResourceType.Wood, ResourceType.Wood, ResourceType.Wood, ResourceType.Wood,
+        ResourceType.Brick, ResourceType.Brick, ResourceType.Brick,
+        ResourceType.Wheat, ResourceType.Wheat, ResourceType.Wheat, ResourceType.Wheat,
+        ResourceType.Sheep, ResourceType.Sheep, ResourceType.Sheep, ResourceType.Sheep,
+        ResourceType.Ore, ResourceType.Ore, ResourceType.Ore,
+        null // Desert.
+    };
+    private static final int[] STANDARD_NUMBERS = { 2, 3, 3, 4, 4, 5, 5, 6, 6, 8, 8, 9, 9, 10, 10, 11, 11, 12 };
+
+    // 5-6 player extension: 30 hexes including 2 deserts, and 28 number tokens.
+    private static final ResourceType[] EXTENSION_TILES = {
+        ResourceType.Wood, ResourceType.Wood, ResourceType.Wood, ResourceType.Wood, ResourceType.Wood, ResourceType.Wood,
+        ResourceType.Brick, ResourceType.Brick, ResourceType.Brick, ResourceType.Brick, ResourceType.Brick,
+        ResourceType.Wheat, ResourceType.Wheat, ResourceType.Wheat, ResourceType.Wheat, ResourceType.Wheat, ResourceType.Wheat,
+        ResourceType.Sheep, ResourceType.Sheep, ResourceType.Sheep, ResourceType.Sheep, ResourceType.Sheep, ResourceType.Sheep,
+        ResourceType.Ore, ResourceType.Ore, ResourceType.Ore, ResourceType.Ore, ResourceType.Ore,
+        null, null
+    };
+    private static final int[] EXTENSION_NUMBERS = {
+        2, 2, 3, 3, 3, 4, 4, 4, 5, 5, 5, 6, 6, 6, 8, 8, 8, 9, 9, 9, 10, 10, 10, 11, 11, 11, 12, 12
+    };
+
+    private HexMapGenerator() {
+    }
+
+    // Regular hexagon of hexes: radius 2 is the normal 19-hex board, radius r has 3r(r + 1) + 1 hexes.
+    public static BoardTopology hexagon(int radius, long seed) {
+        List<int[]> hexes = new ArrayList<>();
+        for (int r = -radius; r <= radius; r++) {
+            for (int q = Math.max(-radius, -r - radius); q <= Math.min(radius, -r + radius); q++) {
+                hexes.add(new int[] { q, r });
+            }
+        }
+        return build(hexes, STANDARD_TILES, STANDARD_NUMBERS, seed);
+    }
+
+    // The 30-hex 5-6 player board: rows of 3, 4, 5, 6, 5, 4, 3.
+    public static BoardTopology fiveSixPlayer(long seed) {
+        List<int[]> hexes = new ArrayList<>();
+        for (int r = -3; r <= 3; r++) {
+            for (int q = Math.max(-3, -r - 3); q <= Math.min(2, -r + 2); q++) {
+                hexes.add(new int[] { q, r });
+            }
+        }
+        return build(hexes, EXTENSION_TILES, EXTENSION_NUMBERS, seed);
+    }
+
+    private static BoardTopology build(List<int[]> hexes, ResourceType[] tileBag, int[] numberBag, long seed) {
+        // Corner positions on an integer lattice: hex (q, r) is centred at (2q + r, 3r).
+        Map<Long, Integer> cornerIDs = new HashMap<>();
+        int[][] tilesNodes = new int[hexes.size()][6];
+        for (int hexID = 0; hexID < hexes.size(); hexID++) {
+            int centreX = 2 * hexes.get(hexID)[0] + hexes.get(hexID)[1];
+            int centreY = 3 * hexes.get(hexID)[1];
+            for (int k = 0; k < 6; k++) {
+                long key = ((long) (centreX + CORNER_DX[k]) << 32) ^ ((centreY + CORNER_DY[k]) & 0xFFFFFFFFL);
+                Integer corner = cornerIDs.get(key);
+                if (corner == null) {
+                    corner = cornerIDs.size();
+                    cornerIDs.put(key, corner);
+                }
+                tilesNodes[hexID][k] = corner;
+            }
+        }
+
+        SplittableRandom random = new SplittableRandom(seed);
+        ResourceType[] resources = deal(tileBag, hexes.size(), random);
+        int producing = 0;
+        for (ResourceType resource : resources) {
+            if (resource != null) {
+                producing++;
+            }
+        }
+        int[] numbers = deal(numberBag, producing, random);
+
+        HexTerrain[] tiles = new HexTerrain[hexes.size()];
+        int numberIndex = 0;
+        for (int hexID = 0; hexID < tiles.length; hexID++) {
+            if (resources[hexID] == null) {
+                tiles[hexID] = new DesertHex(hexID);
+            } else {
+                tiles[hexID] = new ResourceHex(hexID, new HexBoardNum(numbers[numberIndex++]), resources[hexID]);
+            }
+        }
+
+        return new BoardTopology(tilesNodes, cornerIDs.size(), tiles);
+    }
+
+    // Repeats the bag until there are enough, then shuffles (Fisher-Yates) and takes the first count.
+    private static ResourceType[] deal(ResourceType[] bag, int count, SplittableRandom random) {
+        int copies = (count + bag.length - 1) / bag.length;
+        ResourceType[] pool = new ResourceType[copies * bag.length];
+        for (int i = 0; i < pool.length; i++) {
+            pool[i] = bag[i % bag.length];
+        }
+        for (int i = pool.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            ResourceType swap = pool[i];
+            pool[i] = pool[j];
+            pool[j] = swap;
+        }
+        ResourceType[] dealt = new ResourceType[count];
+        System.arraycopy(pool, 0, dealt, 0, count);
+        return dealt;
+    }
+
+    private static int[] deal(int[] bag, int count, SplittableRandom random) {
+        int copies = Math.max(1, (count + bag.length - 1) / bag.length);
+        int[] pool = new int[copies * bag.length];
+        for (int i = 0; i < pool.length; i++) {
+            pool[i] = bag[i % bag.length];
+        }
+        for (int i = pool.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = pool[i];
+            pool[i] = pool[j];
+            pool[j] = swap;
+        }
+        int[] dealt = new int[count];
+        System.arraycopy(pool, 0, dealt, 0, count);
+        return dealt;
+    }
+}
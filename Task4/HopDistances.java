@@ -0,0 +1,104 @@
+import java.util.Arrays;
+
+// Hop distance (number of edges) between every pair of corners on a map, from one BFS per corner. Each corner's row
+// also lists every corner in BFS order, nearest first, with the offset where each distance starts, so "corners
+// within k" is a prefix of the row and "nearest corner that ..." is a scan that stops at the first hit. Takes n*n
+// bytes plus n*n ints, so BoardTopology only builds it when first asked, and refuses maps over MAX_NODES corners.
+final class HopDistances {
+    static final int MAX_NODES = 4096;
+    // Distance reported for corners in a different piece of the map (generated maps are always in one piece).
+    static final int UNREACHABLE = 255;
+
+    private final int nodeCount;
+    private final int maxDistance;
+    // distance[a * n + b], unsigned.
+    private final byte[] distance;
+    // byDistance[a * n + i] = i-th nearest corner to a (a itself first).
+    private final int[] byDistance;
+    // ringStart[a * (maxDistance + 2) + d] = index in a's row of the first corner at distance d.
+    private final int[] ringStart;
+
+    public HopDistances(BoardAdjacency adjacency) {
+        int n = adjacency.getNodeCount();
+        if (n > MAX_NODES) {
+            throw new IllegalStateException("Map has " + n + " corners; hop distances are limited to " + MAX_NODES);
+        }
+        nodeCount = n;
+        distance = new byte[n * n];
+        byDistance = new int[n * n];
+        Arrays.fill(distance, (byte) UNREACHABLE);
+
+        int farthest = 0;
+        for (int from = 0; from < n; from++) {
+            int row = from * n;
+            int head = row;
+            int tail = row;
+            distance[row + from] = 0;
+            byDistance[tail++] = from;
+            while (head < tail) {
+                int corner = byDistance[head++];
+                int next = (distance[row + corner] & 0xFF) + 1;
+                for (int k = 0; k < adjacency.degree(corner); k++) {
+                    int neighbour = adjacency.neighbour(corner, k);
+                    if ((distance[row + neighbour] & 0xFF) == UNREACHABLE) {
+                        if (next >= UNREACHABLE) {
+                            throw new IllegalStateException("Map is too wide for byte hop distances");
+                        }
+                        distance[row + neighbour] = (byte) next;
+                        byDistance[tail++] = neighbour;
+                        farthest = Math.max(farthest, next);
+                    }
+                }
+            }
+            // Anything the BFS did not reach goes at the end of the row.
+            for (int corner = 0; corner < n && tail < row + n; corner++) {
+                if ((distance[row + corner] & 0xFF) == UNREACHABLE) {
+                    byDistance[tail++] = corner;
+                }
+            }
+        }
+
+        maxDistance = farthest;
+        int rings = maxDistance + 2;
+        ringStart = new int[n * rings];
+        for (int from = 0; from < n; from++) {
+            int d = 0;
+            for (int i = 0; i < n; i++) {
+                int hops = distance[from * n + byDistance[from * n + i]] & 0xFF;
+                while (d <= Math.min(hops, maxDistance + 1)) {
+                    ringStart[from * rings + d++] = i;
+                }
+            }
+            while (d < rings) {
+                ringStart[from * rings + d++] = n;
+            }
+        }
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    // Largest distance between two connected corners.
+    public int getMaxDistance() {
+        return maxDistance;
+    }
+
+    // Edges on the shortest route between the corners, ignoring what is built (UNREACHABLE if there is none).
+    public int distance(int a, int b) {
+        return distance[a * nodeCount + b] & 0xFF;
+    }
+
+    // How many corners are at most k edges from the corner, counting itself. They are nearest(from, 0..count-1).
+    public int countWithin(int from, int k) {
+        if (k < 0) {
+            return 0;
+        }
+        return ringStart[from * (maxDistance + 2) + Math.min(k, maxDistance) + 1];
+    }
+
+    // The i-th nearest corner to from (0 is from itself); ties keep BFS order.
+    public int nearest(int from, int i) {
+        return byDistance[from * nodeCount + i];
+    }
+}
@@ -0,0 +1,57 @@
+import java.util.Arrays;
+
+// Set of ints in 0..capacity-1 with O(1) add, remove, contains and "k-th element" (for random picks). Members are
+// packed at the front of one array and a second array remembers where each one sits.
+final class IndexedIntSet {
+    private final int[] members;
+    private final int[] positions;
+    private int size;
+
+    public IndexedIntSet(int capacity) {
+        members = new int[capacity];
+        positions = new int[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    public boolean contains(int value) {
+        return positions[value] >= 0;
+    }
+
+    public void add(int value) {
+        if (positions[value] < 0) {
+            members[size] = value;
+            positions[value] = size++;
+        }
+    }
+
+    // Moves the last member into the hole, so order is not kept.
+    public void remove(int value) {
+        int position = positions[value];
+        if (position >= 0) {
+            int last = members[--size];
+            members[position] = last;
+            positions[last] = position;
+            positions[value] = -1;
+        }
+    }
+
+    public void set(int value, boolean present) {
+        if (present) {
+            add(value);
+        } else {
+            remove(value);
+        }
+    }
+
+    public int get(int index) {
+        return members[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
@@ -0,0 +1,296 @@
+import java.util.Arrays;
+
+// Longest Road for one board. Each player's roads are split into components (roads joined at corners that no
+// opponent has built on) and each component caches its longest trail. Labels are the lowest edge ID in the
+// component, so they fit in edge-sized arrays. A new road, a removed road or a building change only recomputes the
+// components that touch that spot; everything else keeps its cached length. The card goes to the first player
+// with a road of 5 or more, moves only when someone beats the holder, and is worth 2 VP.
+final class LongestRoad {
+    static final int MIN_LENGTH = 5;
+    static final int VICTORY_POINTS = 2;
+
+    private final Board board;
+    private final BoardAdjacency adjacency;
+    private final PlayerSeats seats;
+    private final RoadNetwork roads;
+
+    // Edge -> label of its component (-1 if no road), label -> cached longest trail.
+    private final int[] edgeLabel;
+    private final int[] componentLength;
+    // Per seat: labels of that player's live components.
+    private IndexedIntSet[] components = new IndexedIntSet[0];
+    private Player holder;
+
+    // Scratch space for the searches, reused every time. Each rebuilt component gets a fresh stamp on all its edges
+    // (roads added later copy it), so the stamp tells which component a road is in and "stamped after the refresh
+    // started" means already rebuilt.
+    private final int[] stamp;
+    private int currentStamp;
+    private final int[] cornerStamp;
+    private int currentCornerStamp;
+    private final int[] stack;
+    private final int[] componentEdges;
+    private final boolean[] used;
+
+    public LongestRoad(Board board, PlayerSeats seats) {
+        this.board = board;
+        this.adjacency = board.getAdjacency();
+        this.seats = seats;
+        this.roads = board.getRoadNetwork();
+        int edges = adjacency.getEdgeCount();
+        edgeLabel = new int[edges];
+        Arrays.fill(edgeLabel, -1);
+        componentLength = new int[edges];
+        stamp = new int[edges];
+        stack = new int[edges];
+        componentEdges = new int[edges];
+        used = new boolean[edges];
+        cornerStamp = new int[adjacency.getNodeCount()];
+    }
+
+    // Player holding the card, or null.
+    public Player getHolder() {
+        return holder;
+    }
+
+    // Length of the player's longest road (0 if none).
+    public int getLength(Player player) {
+        int seat = seats.find(player);
+        if (seat < 0 || seat >= components.length) {
+            return 0;
+        }
+        int best = 0;
+        IndexedIntSet live = components[seat];
+        for (int i = 0; i < live.size(); i++) {
+            best = Math.max(best, componentLength[live.get(i)]);
+        }
+        return best;
+    }
+
+    public void roadAdded(int edgeID) {
+        Player owner = board.getEdgeOwner(edgeID);
+        int a = adjacency.edgeStart(edgeID);
+        int b = adjacency.edgeEnd(edgeID);
+        if (!extendsFrom(edgeID, owner, a, b) && !extendsFrom(edgeID, owner, b, a)) {
+            refreshAround(owner, a, b);
+        }
+        updateHolder();
+    }
+
+    // Common case: the new road sticks out of an existing component at corner "from" and ends at "tip" (nothing of
+    // the owner's past it, or an opponent's building). Nothing else in the component changes, and a trail using the
+    // new road must end with it, so the new length is the old one or 1 + the best trail leaving "from". Only taken
+    // when the component keeps its label (the new edge ID is not the lowest); otherwise returns false.
+    private boolean extendsFrom(int edgeID, Player owner, int from, int tip) {
+        if (isBlocked(from, owner) || (!isBlocked(tip, owner) && roads.roadCount(tip, owner) > 1)) {
+            return false;
+        }
+        int joined = -1;
+        for (int k = 0; k < adjacency.degree(from) && joined < 0; k++) {
+            int other = adjacency.neighbourEdge(from, k);
+            if (other != edgeID && board.getEdgeOwner(other) == owner) {
+                joined = other;
+            }
+        }
+        if (joined < 0 || edgeID < edgeLabel[joined]) {
+            return false;
+        }
+        int label = edgeLabel[joined];
+        int mark = stamp[joined];
+        edgeLabel[edgeID] = label;
+        stamp[edgeID] = mark;
+        used[edgeID] = true;
+        componentLength[label] = Math.max(componentLength[label], 1 + extend(from, owner, mark));
+        used[edgeID] = false;
+        return true;
+    }
+
+    // Called after the road is gone from the board.
+    public void roadRemoved(int edgeID, Player owner) {
+        int seat = seatFor(owner);
+        components[seat].remove(edgeLabel[edgeID]);
+        edgeLabel[edgeID] = -1;
+        refreshAround(owner, adjacency.edgeStart(edgeID), adjacency.edgeEnd(edgeID));
+        updateHolder();
+    }
+
+    // A building appeared, changed owner or went away: roads through the corner may have split or joined.
+    public void cornerChanged(int intersectionID) {
+        for (int seat = 0; seat < components.length; seat++) {
+            Player player = seats.get(seat);
+            if (roads.touches(intersectionID, player)) {
+                refreshAround(player, intersectionID, intersectionID);
+            }
+        }
+        updateHolder();
+    }
+
+    // Puts the card back with a previous holder (used by MoveStack when undoing), fixing VP.
+    public void restoreHolder(Player previous) {
+        setHolder(previous);
+    }
+
+    // Drops the player's components touching corners a and b and rebuilds them from the roads there. Any piece of an
+    // old component still has a road at a or b, so all of it gets relabelled.
+    private void refreshAround(Player owner, int a, int b) {
+        int seat = seatFor(owner);
+        IndexedIntSet live = components[seat];
+        int refreshStart = currentStamp;
+        int corner = a;
+        for (int pass = 0; pass < 2; pass++, corner = b) {
+            for (int k = 0; k < adjacency.degree(corner); k++) {
+                int edgeID = adjacency.neighbourEdge(corner, k);
+                if (board.getEdgeOwner(edgeID) == owner && edgeLabel[edgeID] >= 0) {
+                    live.remove(edgeLabel[edgeID]);
+                }
+            }
+        }
+        corner = a;
+        for (int pass = 0; pass < 2; pass++, corner = b) {
+            for (int k = 0; k < adjacency.degree(corner); k++) {
+                int edgeID = adjacency.neighbourEdge(corner, k);
+                if (board.getEdgeOwner(edgeID) == owner && stamp[edgeID] <= refreshStart) {
+                    rebuildComponent(owner, edgeID, live);
+                }
+            }
+        }
+    }
+
+    // Collects the component holding the seed road, labels it and caches its longest trail.
+    private void rebuildComponent(Player owner, int seed, IndexedIntSet live) {
+        int mark = ++currentStamp;
+        int size = 0;
+        int top = 0;
+        int label = seed;
+        stack[top++] = seed;
+        stamp[seed] = mark;
+        while (top > 0) {
+            int edgeID = stack[--top];
+            componentEdges[size++] = edgeID;
+            label = Math.min(label, edgeID);
+            for (int end = 0; end < 2; end++) {
+                int corner = end == 0 ? adjacency.edgeStart(edgeID) : adjacency.edgeEnd(edgeID);
+                if (isBlocked(corner, owner)) {
+                    continue;
+                }
+                for (int k = 0; k < adjacency.degree(corner); k++) {
+                    int next = adjacency.neighbourEdge(corner, k);
+                    if (stamp[next] != mark && board.getEdgeOwner(next) == owner) {
+                        stamp[next] = mark;
+                        stack[top++] = next;
+                    }
+                }
+            }
+        }
+
+        for (int i = 0; i < size; i++) {
+            edgeLabel[componentEdges[i]] = label;
+        }
+        componentLength[label] = longestTrail(owner, size, mark);
+        live.add(label);
+    }
+
+    // Longest trail (no road used twice) in the component just collected. It has to start at a dead end, a fork or
+    // an opponent's building unless the component is a plain loop, so only those corners are tried. A trail using
+    // every road cannot be beaten, so the search stops there.
+    private int longestTrail(Player owner, int size, int mark) {
+        int best = 0;
+        boolean triedAny = false;
+        currentCornerStamp++;
+        for (int i = 0; i < size; i++) {
+            for (int end = 0; end < 2; end++) {
+                int edgeID = componentEdges[i];
+                int corner = end == 0 ? adjacency.edgeStart(edgeID) : adjacency.edgeEnd(edgeID);
+                if (cornerStamp[corner] == currentCornerStamp) {
+                    continue;
+                }
+                cornerStamp[corner] = currentCornerStamp;
+                if (roads.roadCount(corner, owner) != 2 || isBlocked(corner, owner)) {
+                    best = Math.max(best, extend(corner, owner, mark));
+                    triedAny = true;
+                    if (best == size) {
+                        return best;
+                    }
+                }
+            }
+        }
+        if (!triedAny && size > 0) {
+            best = extend(adjacency.edgeStart(componentEdges[0]), owner, mark);
+        }
+        return best;
+    }
+
+    // Roads are only followed inside the component: a trail starting on an opponent's building must not cross it.
+    private int extend(int corner, Player owner, int mark) {
+        int best = 0;
+        for (int k = 0; k < adjacency.degree(corner); k++) {
+            int edgeID = adjacency.neighbourEdge(corner, k);
+            if (used[edgeID] || stamp[edgeID] != mark) {
+                continue;
+            }
+            used[edgeID] = true;
+            int next = adjacency.neighbour(corner, k);
+            int length = 1 + (isBlocked(next, owner) ? 0 : extend(next, owner, mark));
+            used[edgeID] = false;
+            best = Math.max(best, length);
+        }
+        return best;
+    }
+
+    // An opponent's building on the corner breaks the road there.
+    private boolean isBlocked(int corner, Player owner) {
+        Intersection intersection = board.getIntersection(corner);
+        return intersection.getBuilding() != null && intersection.getPlayer() != owner;
+    }
+
+    // The holder keeps the card on a tie. If they drop behind, a single longest player (5+) takes it, and if nobody
+    // stands out it is set aside.
+    private void updateHolder() {
+        int best = 0;
+        Player leader = null;
+        boolean tie = false;
+        for (int seat = 0; seat < components.length; seat++) {
+            int length = getLength(seats.get(seat));
+            if (length > best) {
+                best = length;
+                leader = seats.get(seat);
+                tie = false;
+            } else if (length == best) {
+                tie = true;
+            }
+        }
+
+        if (best < MIN_LENGTH) {
+            setHolder(null);
+        } else if (holder != null && getLength(holder) == best) {
+            return;
+        } else {
+            setHolder(tie ? null : leader);
+        }
+    }
+
+    private void setHolder(Player newHolder) {
+        if (newHolder == holder) {
+            return;
+        }
+        if (holder != null) {
+            holder.adjustVictoryPoints(-VICTORY_POINTS);
+        }
+        if (newHolder != null) {
+            newHolder.adjustVictoryPoints(VICTORY_POINTS);
+        }
+        holder = newHolder;
+    }
+
+    private int seatFor(Player player) {
+        int seat = seats.register(player);
+        if (seat >= components.length) {
+            int old = components.length;
+            components = Arrays.copyOf(components, seat + 1);
+            for (int i = old; i <= seat; i++) {
+                components[i] = new IndexedIntSet(adjacency.getEdgeCount());
+            }
+        }
+        return seat;
+    }
+}
@@ -0,0 +1,418 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Monte Carlo Tree Search bot. Every decision copies the game (GameCopy) and plays it out over and over from the
+// current position: down the tree by UCT, one new node, then random builds up to a horizon (RolloutEngine). The tree alternates
+// decision nodes (one player's builds they can pay for, plus passing) with chance nodes for the next player's roll,
+// whose children are sampled with Dice.roll's odds (2-12, a 7 is re-rolled). Rewards are 1 for reaching 10 VP first,
+// otherwise each player's share of the VP on the table when the playout stops, and every node scores its own mover.
+//
+// Threads either share one tree (TREE) or grow one tree each and add up the root visits at the end (ROOT). On a
+// shared tree a visit is counted when a thread walks through a node and the reward only added on the way back, so
+// moves other threads are still playing out look like losses for a moment (virtual loss) and threads spread out.
+// Each decision stops after a time budget or a playout budget; the number of playouts and the time taken are kept so
+// playouts/second can be reported (getPlayoutsPerSecond).
+final class MctsAgent implements Agent, AutoCloseable {
+    enum Parallelism {
+        ROOT,
+        TREE
+    }
+
+    static final int WIN_POINTS = 10;
+    // Playouts stop after this many turns past the tree (10 rounds of 4 players) unless someone wins first.
+    static final int DEFAULT_HORIZON = 40;
+    // Chance children per action, indexed by roll - 2.
+    private static final int ROLLS = 11;
+    // Rewards are in [0, 1], so a smaller constant than sqrt(2) explores enough.
+    private static final double EXPLORATION = 0.7;
+    // Action kinds are TurnAction.Kind ordinals, or PASS.
+    private static final int SETTLEMENT = 0;
+    private static final int CITY = 1;
+    private static final int ROAD = 2;
+
+    private final int threads;
+    private final Parallelism parallelism;
+    private final long budgetNanos;
+    private final int budgetPlayouts;
+    private final SplittableRandom seeds;
+    private int horizon = DEFAULT_HORIZON;
+    private ExecutorService pool;
+
+    private long lastPlayouts;
+    private long totalPlayouts;
+    private long totalNanos;
+
+    private MctsAgent(int threads, Parallelism parallelism, long budgetNanos, int budgetPlayouts, long seed) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Need at least one search thread");
+        }
+        this.threads = threads;
+        this.parallelism = parallelism;
+        this.budgetNanos = budgetNanos;
+        this.budgetPlayouts = budgetPlayouts;
+        this.seeds = new SplittableRandom(seed);
+    }
+
+    // Searches for the given time on every decision.
+    public static MctsAgent timed(int threads, Parallelism parallelism, long millisPerMove, long seed) {
+        return new MctsAgent(threads, parallelism, millisPerMove * 1_000_000L, 0, seed);
+    }
+
+    // Plays exactly this many playouts per decision (over all threads), however long they take.
+    public static MctsAgent playouts(int threads, Parallelism parallelism, int playoutsPerMove, long seed) {
+        return new MctsAgent(threads, parallelism, 0, playoutsPerMove, seed);
+    }
+
+    public void setHorizon(int turns) {
+        horizon = turns;
+    }
+
+    @Override
+    public int chooseMove(GameView view, MoveList moves) {
+        Node root = rootNode(view, moves);
+        if (root.actionCount() == 1) {
+            return root.origin[0];
+        }
+
+        Search[] searches = new Search[threads];
+        AtomicInteger playoutsLeft = new AtomicInteger(budgetPlayouts);
+        long deadline = budgetNanos > 0 ? System.nanoTime() + budgetNanos : Long.MAX_VALUE;
+        for (int t = 0; t < threads; t++) {
+            Node tree = parallelism == Parallelism.TREE || t == 0 ? root : root.copyActions();
+            searches[t] = new Search(view.copyGame(), tree, seeds.split(), horizon);
+        }
+
+        long start = System.nanoTime();
+        long playouts = 0;
+        if (threads == 1) {
+            playouts = searches[0].run(playoutsLeft, deadline, budgetPlayouts > 0);
+        } else {
+            List<Future<Long>> parts = new ArrayList<>();
+            for (Search search : searches) {
+                parts.add(pool().submit(() -> search.run(playoutsLeft, deadline, budgetPlayouts > 0)));
+            }
+            try {
+                for (Future<Long> part : parts) {
+                    playouts += part.get();
+                }
+            } catch (Exception e) {
+                throw new IllegalStateException("Search thread failed", e);
+            }
+        }
+        lastPlayouts = playouts;
+        totalNanos += System.nanoTime() - start;
+        totalPlayouts += playouts;
+
+        // Most visited move over all the trees, matched up by index in the move list (PASS counts as slot 0).
+        int[] visits = new int[moves.size() + 1];
+        for (int t = 0; t < threads; t++) {
+            Node tree = searches[t].root;
+            if (t > 0 && tree == root) {
+                continue;
+            }
+            for (int a = 0; a < tree.expanded; a++) {
+                visits[tree.origin[a] + 1] += tree.visits[a];
+            }
+        }
+        int best = PASS;
+        for (int i = 0; i < visits.length; i++) {
+            if (visits[i] > visits[best + 1]) {
+                best = i - 1;
+            }
+        }
+        return best;
+    }
+
+    // Playouts in the latest search (a decision with only one choice is not searched).
+    public long getLastPlayouts() {
+        return lastPlayouts;
+    }
+
+    // Over every search this agent has run.
+    public double getPlayoutsPerSecond() {
+        return totalNanos == 0 ? 0 : totalPlayouts * 1e9 / totalNanos;
+    }
+
+    public long getTotalPlayouts() {
+        return totalPlayouts;
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdownNow();
+            pool = null;
+        }
+    }
+
+    private ExecutorService pool() {
+        if (pool == null) {
+            pool = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "mcts");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return pool;
+    }
+
+    // One thread's search on a fresh tree from the view's position, for timing single playouts (Benchmarks).
+    static Search newSearch(GameView view, MoveList moves, long seed) {
+        return new Search(view.copyGame(), rootNode(view, moves), new SplittableRandom(seed), DEFAULT_HORIZON);
+    }
+
+    // Root actions come from the real move list (origin is the index there): every move the player can pay for, plus
+    // passing.
+    private static Node rootNode(GameView view, MoveList moves) {
+        int[] kinds = new int[moves.size() + 1];
+        int[] targets = new int[moves.size() + 1];
+        int[] origin = new int[moves.size() + 1];
+        int count = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            if (view.canAfford(moves.kind(i))) {
+                kinds[count] = moves.kind(i).ordinal();
+                targets[count] = moves.target(i);
+                origin[count++] = i;
+            }
+        }
+        kinds[count] = PASS;
+        origin[count++] = PASS;
+        return new Node(view.getSeat(), kinds, targets, origin, count);
+    }
+
+    // A decision node: the actions of the player to move, their stats, and the chance children (one per action and
+    // roll, made when first reached). Untried actions sit at the end and are swapped forward at random as they are
+    // expanded, so actions [0, expanded) never move and can be read without the lock once selected. Everything else is
+    // only touched while holding the node's lock. origin is only kept at the root.
+    static final class Node {
+        final int seat;
+        final int[] kinds;
+        final int[] targets;
+        final int[] origin;
+        final int[] visits;
+        final double[] value;
+        final Node[] children;
+        int totalVisits;
+        int expanded;
+
+        Node(int seat, int[] kinds, int[] targets, int[] origin, int count) {
+            this.seat = seat;
+            this.kinds = kinds;
+            this.targets = targets;
+            this.origin = origin;
+            visits = new int[count];
+            value = new double[count];
+            children = new Node[count * ROLLS];
+        }
+
+        int actionCount() {
+            return visits.length;
+        }
+
+        // Same actions, fresh stats: the root for another thread's tree in ROOT mode.
+        Node copyActions() {
+            return new Node(seat, kinds.clone(), targets.clone(), origin.clone(), visits.length);
+        }
+
+        // Picks the action to walk through and counts the visit now (the virtual loss until the reward comes back).
+        synchronized int select(SplittableRandom random) {
+            int action;
+            if (expanded < visits.length) {
+                int pick = expanded + random.nextInt(visits.length - expanded);
+                swap(pick, expanded);
+                action = expanded++;
+            } else {
+                action = 0;
+                double best = Double.NEGATIVE_INFINITY;
+                double logTotal = Math.log(totalVisits);
+                for (int a = 0; a < visits.length; a++) {
+                    double score = value[a] / visits[a] + EXPLORATION * Math.sqrt(logTotal / visits[a]);
+                    if (score > best) {
+                        best = score;
+                        action = a;
+                    }
+                }
+            }
+            visits[action]++;
+            totalVisits++;
+            return action;
+        }
+
+        synchronized void addReward(int action, double reward) {
+            value[action] += reward;
+        }
+
+        synchronized Node child(int action, int roll) {
+            return children[action * ROLLS + roll - 2];
+        }
+
+        // Keeps whichever node got there first if two threads made the same child.
+        synchronized Node addChild(int action, int roll, Node child) {
+            int slot = action * ROLLS + roll - 2;
+            if (children[slot] == null) {
+                children[slot] = child;
+            }
+            return children[slot];
+        }
+
+        private void swap(int a, int b) {
+            int kind = kinds[a];
+            kinds[a] = kinds[b];
+            kinds[b] = kind;
+            int target = targets[a];
+            targets[a] = targets[b];
+            targets[b] = target;
+            if (origin != null) {
+                int from = origin[a];
+                origin[a] = origin[b];
+                origin[b] = from;
+            }
+        }
+    }
+
+    // One thread's search: its own copy of the game to play on, undone after every playout, and reusable buffers.
+    static final class Search {
+        final GameCopy game;
+        final Board board;
+        final Node root;
+        private final MoveStack stack;
+        private final RolloutEngine engine;
+        private final SplittableRandom random;
+        private final int horizon;
+        private final MoveList moves = new MoveList();
+        private final double[] rewards;
+        private Node[] pathNodes = new Node[64];
+        private int[] pathActions = new int[64];
+
+        Search(GameCopy game, Node root, SplittableRandom random, int horizon) {
+            this.game = game;
+            this.board = game.getBoard();
+            this.root = root;
+            this.stack = new MoveStack(board);
+            this.engine = new RolloutEngine(board.getTopology());
+            this.random = random;
+            this.horizon = horizon;
+            this.rewards = new double[game.getPlayerCount()];
+        }
+
+        // Plays out until the budget is used up; returns how many playouts this thread did.
+        long run(AtomicInteger playoutsLeft, long deadline, boolean countPlayouts) {
+            long playouts = 0;
+            while (countPlayouts ? playoutsLeft.getAndDecrement() > 0 : System.nanoTime() < deadline) {
+                playout();
+                playouts++;
+            }
+            return playouts;
+        }
+
+        void playout() {
+            int base = stack.size();
+            int depth = 0;
+            Node node = root;
+            int seat = root.seat;
+            int winner = -1;
+            while (true) {
+                int action = node.select(random);
+                if (depth == pathNodes.length) {
+                    pathNodes = Arrays.copyOf(pathNodes, depth * 2);
+                    pathActions = Arrays.copyOf(pathActions, depth * 2);
+                }
+                pathNodes[depth] = node;
+                pathActions[depth++] = action;
+
+                Player player = game.getPlayer(seat);
+                play(player, node.kinds[action], node.targets[action]);
+                if (player.getVictoryPoints() >= WIN_POINTS) {
+                    winner = seat;
+                    break;
+                }
+
+                seat = (seat + 1) % game.getPlayerCount();
+                int roll = RolloutEngine.roll(random);
+                stack.makeProduction(roll);
+                Node next = node.child(action, roll);
+                if (next == null) {
+                    node.addChild(action, roll, decisionNode(seat));
+                    break;
+                }
+                node = next;
+            }
+
+            if (winner >= 0) {
+                for (int p = 0; p < rewards.length; p++) {
+                    rewards[p] = p == winner ? 1 : 0;
+                }
+            } else {
+                rollout(seat);
+            }
+            for (int d = 0; d < depth; d++) {
+                Node visited = pathNodes[d];
+                visited.addReward(pathActions[d], rewards[visited.seat]);
+                pathNodes[d] = null;
+            }
+            stack.unmakeTo(base);
+        }
+
+        // Random builds from here (the player in seat has rolled already) until someone wins or the horizon, then
+        // fills in the rewards. Played on the engine's copy, so the board is only read.
+        private void rollout(int seat) {
+            engine.load(board, game.getPlayers(), seat);
+            int winner = engine.play(random, horizon, true);
+            int players = game.getPlayerCount();
+            if (winner >= 0) {
+                for (int p = 0; p < players; p++) {
+                    rewards[p] = p == winner ? 1 : 0;
+                }
+                return;
+            }
+
+            int total = 0;
+            for (int p = 0; p < players; p++) {
+                total += engine.getVictoryPoints(p);
+            }
+            for (int p = 0; p < players; p++) {
+                rewards[p] = total == 0 ? 1.0 / players : (double) engine.getVictoryPoints(p) / total;
+            }
+        }
+
+        private void play(Player player, int kind, int target) {
+            switch (kind) {
+                case SETTLEMENT:
+                    stack.makeSettlement(player, target);
+                    break;
+                case CITY:
+                    stack.makeCity(player, target);
+                    break;
+                case ROAD:
+                    stack.makeRoad(player, target);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        // New decision node for the player in seat, at the position the copy is in now.
+        private Node decisionNode(int seat) {
+            Player player = game.getPlayer(seat);
+            moves.fill(board.getMoveGenerator(), player);
+            int size = moves.size() + 1;
+            int[] kinds = new int[size];
+            int[] targets = new int[size];
+            int count = 0;
+            for (int i = 0; i < moves.size(); i++) {
+                if (player.canAfford(moves.kind(i))) {
+                    kinds[count] = moves.kind(i).ordinal();
+                    targets[count++] = moves.target(i);
+                }
+            }
+            kinds[count++] = PASS;
+            return new Node(seat, kinds, targets, null, count);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+import java.util.Arrays;
+
+// Keeps the legal builds for every player on a board so choosing a move is a random pick instead of a scan:
+//  - open corners (distance rule ok, anyone may settle there while they have fewer than 2 settlements),
+//  - per player, empty corners that are not open but touched by their road (Board.placeSettlement allows those),
+//  - per player, their settlements that can become cities,
+//  - per player, edges where GameRules.checkRoadPlacement passes.
+// Board calls cornerChanged/edgeChanged after every build (or undo) and only the corners and edges around the
+// change are re-checked. Resources are not considered here; Player still checks it can pay.
+final class MoveGenerator {
+    private final Board board;
+    private final BoardAdjacency adjacency;
+    private final PlayerSeats seats;
+    private final GameRules rules;
+
+    private final IndexedIntSet openSpots;
+    private IndexedIntSet[] roadSpots = new IndexedIntSet[0];
+    private IndexedIntSet[] upgradeable = new IndexedIntSet[0];
+    private IndexedIntSet[] legalRoads = new IndexedIntSet[0];
+
+    public MoveGenerator(Board board, PlayerSeats seats, GameRules rules) {
+        this.board = board;
+        this.adjacency = board.getAdjacency();
+        this.seats = seats;
+        this.rules = rules;
+
+        openSpots = new IndexedIntSet(adjacency.getNodeCount());
+        for (int i = 0; i < adjacency.getNodeCount(); i++) {
+            openSpots.set(i, rules.checkEmptyIntersections(i, board));
+        }
+    }
+
+    // The building on the corner was placed, upgraded or taken back.
+    public void cornerChanged(int intersectionID) {
+        Building building = board.getIntersection(intersectionID).getBuilding();
+        if (building != null) {
+            seatFor(building.getOwner());
+        }
+        for (int seat = 0; seat < upgradeable.length; seat++) {
+            upgradeable[seat].set(intersectionID, building instanceof Settlement && building.getOwner() == seats.get(seat));
+        }
+
+        refreshCorner(intersectionID);
+        for (int k = 0; k < adjacency.degree(intersectionID); k++) {
+            refreshCorner(adjacency.neighbour(intersectionID, k));
+        }
+        refreshEdgesAround(intersectionID);
+    }
+
+    // The road on the edge was built or taken back.
+    public void edgeChanged(int edgeID) {
+        Player owner = board.getEdgeOwner(edgeID);
+        if (owner != null) {
+            seatFor(owner);
+        }
+        int start = adjacency.edgeStart(edgeID);
+        int end = adjacency.edgeEnd(edgeID);
+        refreshCorner(start);
+        refreshCorner(end);
+        refreshEdgesAround(start);
+        refreshEdgesAround(end);
+    }
+
+    private void refreshCorner(int intersectionID) {
+        boolean open = rules.checkEmptyIntersections(intersectionID, board);
+        boolean empty = board.getIntersection(intersectionID).getBuilding() == null;
+        openSpots.set(intersectionID, open);
+        for (int seat = 0; seat < roadSpots.length; seat++) {
+            roadSpots[seat].set(intersectionID, !open && empty && rules.isConnected(intersectionID, seats.get(seat), board));
+        }
+    }
+
+    private void refreshEdgesAround(int intersectionID) {
+        for (int k = 0; k < adjacency.degree(intersectionID); k++) {
+            int edgeID = adjacency.neighbourEdge(intersectionID, k);
+            for (int seat = 0; seat < legalRoads.length; seat++) {
+                legalRoads[seat].set(edgeID, rules.checkRoadPlacement(edgeID, seats.get(seat), board));
+            }
+        }
+    }
+
+    private int seatFor(Player player) {
+        int seat = seats.register(player);
+        if (seat >= roadSpots.length) {
+            // New players have no roads yet, so their sets start empty.
+            int size = seat + 1;
+            roadSpots = Arrays.copyOf(roadSpots, size);
+            upgradeable = Arrays.copyOf(upgradeable, size);
+            legalRoads = Arrays.copyOf(legalRoads, size);
+            for (int i = 0; i < size; i++) {
+                if (roadSpots[i] == null) {
+                    roadSpots[i] = new IndexedIntSet(adjacency.getNodeCount());
+                    upgradeable[i] = new IndexedIntSet(adjacency.getNodeCount());
+                    legalRoads[i] = new IndexedIntSet(adjacency.getEdgeCount());
+                }
+            }
+        }
+        return seat;
+    }
+
+    // Open corners only count while the player has fewer than 2 settlements (same as Board.placeSettlement).
+    private int openSpotCount(Player player) {
+        return player.getPlayerSettlements().size() < 2 ? openSpots.size() : 0;
+    }
+
+    public int settlementSpotCount(Player player) {
+        int seat = seats.find(player);
+        return openSpotCount(player) + (seat < 0 ? 0 : roadSpots[seat].size());
+    }
+
+    // k-th legal settlement corner (0 <= k < settlementSpotCount).
+    public int settlementSpot(Player player, int k) {
+        int open = openSpotCount(player);
+        if (k < open) {
+            return openSpots.get(k);
+        }
+        return roadSpots[seats.find(player)].get(k - open);
+    }
+
+    // Points the list at the player's candidates, in the same order as settlementSpot/upgradeable/road.
+    public void fill(Player player, MoveList moves) {
+        int seat = seats.find(player);
+        boolean mayUseOpen = openSpotCount(player) > 0;
+        if (seat < 0) {
+            moves.set(openSpots, mayUseOpen, null, null, null);
+        } else {
+            moves.set(openSpots, mayUseOpen, roadSpots[seat], upgradeable[seat], legalRoads[seat]);
+        }
+    }
+
+    // True if the corner is one of the player's settlement spots.
+    public boolean isSettlementSpot(Player player, int intersectionID) {
+        if (openSpotCount(player) > 0 && openSpots.contains(intersectionID)) {
+            return true;
+        }
+        int seat = seats.find(player);
+        return seat >= 0 && roadSpots[seat].contains(intersectionID);
+    }
+
+    public int upgradeableCount(Player player) {
+        int seat = seats.find(player);
+        return seat < 0 ? 0 : upgradeable[seat].size();
+    }
+
+    public int upgradeable(Player player, int k) {
+        return upgradeable[seats.find(player)].get(k);
+    }
+
+    public int roadCount(Player player) {
+        int seat = seats.find(player);
+        return seat < 0 ? 0 : legalRoads[seat].size();
+    }
+
+    // Edge ID of the k-th legal road.
+    public int road(Player player, int k) {
+        return legalRoads[seats.find(player)].get(k);
+    }
+}
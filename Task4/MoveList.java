@@ -0,0 +1,87 @@
+// One player's legal builds, as handed to an Agent: settlement corners first, then the corners of settlements that
+// can become cities, then road edge IDs, each kind in one block of indexes. Nothing is copied: fill points the list
+// at MoveGenerator's live sets, so it costs the same however many moves there are, and Turn reuses one list for
+// every turn. That also means the list is only good until the board next changes; an agent that tries moves out on
+// the board must read the targets it needs first. Placement rules are applied but cards are not, so a move can
+// still fail for lack of cards (GameView.canAfford tells the kinds apart).
+final class MoveList {
+    private static final IndexedIntSet EMPTY = new IndexedIntSet(0);
+
+    private IndexedIntSet openSpots = EMPTY;
+    private IndexedIntSet roadSpots = EMPTY;
+    private IndexedIntSet upgradeable = EMPTY;
+    private IndexedIntSet roads = EMPTY;
+    private int openCount;
+    private int settlementCount;
+    private int cityCount;
+    private int roadCount;
+
+    public void fill(MoveGenerator generator, Player player) {
+        generator.fill(player, this);
+    }
+
+    // Called by MoveGenerator.fill. openSpots only counts if the player may still settle away from their roads; the
+    // per-player sets are null for a player who has not built yet.
+    void set(IndexedIntSet openSpots, boolean mayUseOpen, IndexedIntSet roadSpots, IndexedIntSet upgradeable, IndexedIntSet roads) {
+        this.openSpots = openSpots;
+        this.roadSpots = roadSpots == null ? EMPTY : roadSpots;
+        this.upgradeable = upgradeable == null ? EMPTY : upgradeable;
+        this.roads = roads == null ? EMPTY : roads;
+        openCount = mayUseOpen ? openSpots.size() : 0;
+        settlementCount = openCount + this.roadSpots.size();
+        cityCount = this.upgradeable.size();
+        roadCount = this.roads.size();
+    }
+
+    public int size() {
+        return settlementCount + cityCount + roadCount;
+    }
+
+    public int count(TurnAction.Kind kind) {
+        switch (kind) {
+            case SETTLEMENT:
+                return settlementCount;
+            case CITY:
+                return cityCount;
+            case ROAD:
+                return roadCount;
+            default:
+                return 0;
+        }
+    }
+
+    // Index of the first move of this kind (the moves of one kind follow on from it).
+    public int start(TurnAction.Kind kind) {
+        switch (kind) {
+            case SETTLEMENT:
+                return 0;
+            case CITY:
+                return settlementCount;
+            case ROAD:
+                return settlementCount + cityCount;
+            default:
+                return size();
+        }
+    }
+
+    public TurnAction.Kind kind(int index) {
+        if (index < settlementCount) {
+            return TurnAction.Kind.SETTLEMENT;
+        }
+        return index < settlementCount + cityCount ? TurnAction.Kind.CITY : TurnAction.Kind.ROAD;
+    }
+
+    // Corner for a settlement or city, edge ID for a road.
+    public int target(int index) {
+        if (index < openCount) {
+            return openSpots.get(index);
+        }
+        if (index < settlementCount) {
+            return roadSpots.get(index - openCount);
+        }
+        if (index < settlementCount + cityCount) {
+            return upgradeable.get(index - settlementCount);
+        }
+        return roads.get(index - settlementCount - cityCount);
+    }
+}
@@ -0,0 +1,124 @@
+import java.util.Arrays;
+
+// Make/unmake for search: each make* call plays a build (through the normal Player build methods) or a production
+// roll on the live board, and if it happened pushes an undo record. unmake() pops the latest record and restores the
+// building, owner, road, cards, VP and Longest Road holder exactly, so an agent can try a move and take it back
+// without copying the board.
+// Records are a few ints plus the player and the building that was replaced; the arrays only grow, never shrink.
+final class MoveStack {
+    private static final int SETTLEMENT = 0;
+    private static final int CITY = 1;
+    private static final int ROAD = 2;
+    private static final int PRODUCTION = 3;
+
+    private final Board board;
+    private int[] kinds = new int[64];
+    private int[] locations = new int[64];
+    private int[] listIndexes = new int[64];
+    private Player[] players = new Player[64];
+    private Building[] previous = new Building[64];
+    // Longest Road holder before each move; recomputing after an undo could pick a different player on a tie.
+    private Player[] holders = new Player[64];
+    private int size;
+
+    public MoveStack(Board board) {
+        this.board = board;
+    }
+
+    // True (and pushed) if the settlement was built.
+    public boolean makeSettlement(Player player, int intersectionID) {
+        Intersection spot = board.getIntersection(intersectionID);
+        Building before = spot.getBuilding();
+        Player holder = board.getLongestRoad().getHolder();
+        int vpBefore = player.getVictoryPoints();
+        player.buildSettlement(board, spot);
+        if (player.getVictoryPoints() == vpBefore) {
+            return false;
+        }
+        push(SETTLEMENT, intersectionID, 0, player, before, holder);
+        return true;
+    }
+
+    public boolean makeCity(Player player, int intersectionID) {
+        Intersection spot = board.getIntersection(intersectionID);
+        Building before = spot.getBuilding();
+        int settlementIndex = player.getPlayerSettlements().indexOf(before);
+        Player holder = board.getLongestRoad().getHolder();
+        int vpBefore = player.getVictoryPoints();
+        player.buildCity(board, spot);
+        if (player.getVictoryPoints() == vpBefore) {
+            return false;
+        }
+        push(CITY, intersectionID, settlementIndex, player, before, holder);
+        return true;
+    }
+
+    public boolean makeRoad(Player player, int edgeID) {
+        int roadsBefore = player.getPlayerRoads().size();
+        Player holder = board.getLongestRoad().getHolder();
+        player.buildRoad(board, edgeID);
+        if (player.getPlayerRoads().size() == roadsBefore) {
+            return false;
+        }
+        push(ROAD, edgeID, 0, player, null, holder);
+        return true;
+    }
+
+    // Pays out a dice roll. Always pushed (even if nobody gets anything).
+    public void makeProduction(int roll) {
+        board.getProductionTable().payOut(roll);
+        push(PRODUCTION, roll, 0, null, null, board.getLongestRoad().getHolder());
+    }
+
+    public void unmake() {
+        int top = --size;
+        switch (kinds[top]) {
+            case SETTLEMENT:
+                players[top].undoSettlement(board, board.getIntersection(locations[top]), previous[top]);
+                break;
+            case CITY:
+                players[top].undoCity(board, board.getIntersection(locations[top]), (Settlement) previous[top], listIndexes[top]);
+                break;
+            case ROAD:
+                players[top].undoRoad(board, locations[top]);
+                break;
+            default:
+                board.getProductionTable().takeBack(locations[top]);
+                break;
+        }
+        board.getLongestRoad().restoreHolder(holders[top]);
+        players[top] = null;
+        previous[top] = null;
+        holders[top] = null;
+    }
+
+    // Unmakes everything above the given size (e.g. a size saved before a playout).
+    public void unmakeTo(int targetSize) {
+        while (size > targetSize) {
+            unmake();
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void push(int kind, int location, int listIndex, Player player, Building before, Player holder) {
+        if (size == kinds.length) {
+            int grown = size * 2;
+            kinds = Arrays.copyOf(kinds, grown);
+            locations = Arrays.copyOf(locations, grown);
+            listIndexes = Arrays.copyOf(listIndexes, grown);
+            players = Arrays.copyOf(players, grown);
+            previous = Arrays.copyOf(previous, grown);
+            holders = Arrays.copyOf(holders, grown);
+        }
+        kinds[size] = kind;
+        locations[size] = location;
+        listIndexes[size] = listIndex;
+        players[size] = player;
+        previous[size] = before;
+        holders[size] = holder;
+        size++;
+    }
+}
@@ -0,0 +1,29 @@
+import java.util.List;
+
+// Drops every event. Used for batch runs where only the GameResult matters.
+final class NoOpEventSink implements GameEventSink {
+    static final NoOpEventSink INSTANCE = new NoOpEventSink();
+
+    private NoOpEventSink() {
+    }
+
+    @Override
+    public void roundStarted(int round) {
+    }
+
+    @Override
+    public void turnPlayed(int round, Player player, int roll, TurnAction action) {
+    }
+
+    @Override
+    public void roundEnded(int round, List<Player> players) {
+    }
+
+    @Override
+    public void gameWon(Player winner) {
+    }
+
+    @Override
+    public void gameDrawn(int maxRounds) {
+    }
+}
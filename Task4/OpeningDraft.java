@@ -0,0 +1,70 @@
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Setup phase: each player places SETTLEMENTS_EACH settlements in snake order (1-2-3-4-4-3-2-1 for two), each pick
+// taking the legal corner the scorer likes best. Ties (mirror-image corners score exactly the same) are broken at
+// random with the game's SplittableRandom, so seat order alone does not decide who gets the better side of the map
+// and a seeded game still drafts the same way every time. Corner values come from the map's CornerValues, so a pick
+// is one pass over the open corners with no allocation. Settlements only, no roads, and each is worth 1 VP as usual.
+//
+// There is no trading, so a player's opening corners fix what they can ever build: no wood or brick means no roads
+// and no new settlements (at most two cities, 4 VP), no ore means no cities. On the standard map only one player can
+// hold all five resources at once (wood and ore are scarce; Checks works this out), so seat win rates there measure
+// who gets them. With BALANCED that is seat 1, which picks first and last and wins about 90% of games; seats 2 and 3
+// each miss wood or ore, seat 4 ore. With a new generated map every game, who is short changes and seat wins come out near even
+// (28/28/23/21% at radius 2, where later seats still pick from what is left).
+final class OpeningDraft {
+    static final int SETTLEMENTS_EACH = 2;
+
+    private final PlacementScorer scorer;
+
+    public OpeningDraft(PlacementScorer scorer) {
+        this.scorer = scorer;
+    }
+
+    // Runs the whole draft. Returns the corners picked, in draft order.
+    public int[] place(Board board, List<Player> players, SplittableRandom random) {
+        CornerValues values = board.getTopology().getCornerValues();
+        int[][] heldPips = new int[players.size()][CornerValues.RESOURCES];
+        int[] picks = new int[players.size() * SETTLEMENTS_EACH];
+        for (int round = 0; round < SETTLEMENTS_EACH; round++) {
+            for (int k = 0; k < players.size(); k++) {
+                int seat = round % 2 == 0 ? k : players.size() - 1 - k;
+                Player player = players.get(seat);
+                int corner = bestSpot(board, player, heldPips[seat], random);
+                if (corner < 0) {
+                    throw new IllegalStateException("No open corner left for player " + player.getPlayerID());
+                }
+                board.placeSettlement(board.getIntersection(corner), player);
+                player.addVictoryPoint();
+                for (int resource = 0; resource < CornerValues.RESOURCES; resource++) {
+                    heldPips[seat][resource] += values.getResourcePips(corner, resource);
+                }
+                picks[round * players.size() + k] = corner;
+            }
+        }
+        return picks;
+    }
+
+    // Best legal corner for the player's next opening settlement, or -1 if there is none. Of several equally good
+    // corners each is equally likely (the n-th tie seen replaces the pick with chance 1/n).
+    public int bestSpot(Board board, Player player, int[] heldPips, SplittableRandom random) {
+        CornerValues values = board.getTopology().getCornerValues();
+        MoveGenerator moves = board.getMoveGenerator();
+        int best = -1;
+        int ties = 0;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int k = 0; k < moves.settlementSpotCount(player); k++) {
+            int corner = moves.settlementSpot(player, k);
+            double score = scorer.score(values, corner, heldPips);
+            if (score > bestScore) {
+                best = corner;
+                bestScore = score;
+                ties = 1;
+            } else if (score == bestScore && random.nextInt(++ties) == 0) {
+                best = corner;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,28 @@
+// Scores a corner for an opening settlement; OpeningDraft takes the highest-scoring legal corner on each pick.
+// heldPips[r] is what the picking player's earlier opening settlements already make of resource ordinal r, so a
+// scorer can value filling gaps. Called for every legal corner on every pick, so it should not allocate.
+interface PlacementScorer {
+    double score(CornerValues values, int corner, int[] heldPips);
+
+    // Bonus per resource the corner adds that the player has no pips in yet, worth one 6 or 8 token. Without trading
+    // a player missing wood or brick can never build, so spread has to count for about as much as production.
+    double DIVERSITY_BONUS = 5.0;
+
+    // Expected production only.
+    PlacementScorer PIPS = (values, corner, heldPips) -> values.getPips(corner);
+
+    // Pips plus DIVERSITY_BONUS per new resource.
+    PlacementScorer BALANCED = (values, corner, heldPips) -> {
+        double score = 0;
+        for (int resource = 0; resource < CornerValues.RESOURCES; resource++) {
+            int pips = values.getResourcePips(corner, resource);
+            if (pips > 0) {
+                score += pips;
+                if (heldPips[resource] == 0) {
+                    score += DIVERSITY_BONUS;
+                }
+            }
+        }
+        return score;
+    };
+}
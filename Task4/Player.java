@@ -1,47 +1,78 @@
 import java.util.List;
 import java.util.Map;
-import java.util.ArrayList;
-import java.util.Random;
+import java.util.SplittableRandom;
 
-// One player: their cards (resources), buildings (settlements/cities/roads), and VP. Can build if they have the right cards.
+// One player: their cards (resources), buildings (settlements/cities/roads), and VP. Can build if they have the right
+// cards. What to build each turn is up to their Agent.
 class Player {
+    // Build costs as counts by resource ordinal (wood, brick, wheat, sheep, ore).
+    private static final int[] SETTLEMENT_COST = ResourceHand.cost(1, 1, 1, 1, 0);
+    private static final int[] CITY_COST = ResourceHand.cost(0, 0, 2, 0, 3);
+    private static final int[] ROAD_COST = ResourceHand.cost(1, 1, 0, 0, 0);
+
     private int playerID;
     private int victoryPoints;
     private List<City> playerCities;
     private List<Settlement> playerSettlements;
     private List<Road> playerRoads;
-    private Map<ResourceType, Integer> playerResources;
+    private ResourceHand playerResources;
+    private SplittableRandom random = new SplittableRandom(); // Used to pick random actions.
+    private Agent agent = RandomAgent.INSTANCE; // Chooses what to build each turn.
 
+    // Starting cards come in as a map and are copied into the hand.
     public Player(int playerNum, int playerVP, List<City> cities, List<Settlement> settlements, List<Road> roads, Map<ResourceType, Integer> resources) {
         playerID = playerNum;
         victoryPoints = playerVP;
         playerCities = cities;
         playerSettlements = settlements;
-        playerResources = resources;
+        playerResources = new ResourceHand(playerNum);
+        for (Map.Entry<ResourceType, Integer> entry : resources.entrySet()) {
+            playerResources.add(entry.getKey(), entry.getValue());
+        }
         playerRoads = roads;
     }
 
     public void addResource(ResourceType resource, int quantity) {
-        playerResources.put(resource, playerResources.getOrDefault(resource, 0) + quantity);
+        playerResources.add(resource, quantity);
     }
 
     // Take cards from hand. Returns false if not enough.
     public boolean removeResource(ResourceType resource, int quantity) {
-        int have = playerResources.getOrDefault(resource, 0);
-        if (have < quantity) {
+        if (!playerResources.remove(resource, quantity)) {
             System.out.println("Unsuccesful not enough resources");
             return false;
         }
-        playerResources.put(resource, have - quantity);
         return true;
     }
 
     public boolean checkResource(ResourceType resource, int quantity) {
-        if (playerResources.containsKey(resource) && playerResources.get(resource) >= quantity) {
-            return true;
-        } else {
-            return false;
-        }
+        return playerResources.has(resource, quantity);
+    }
+
+    // Give the player a random source split from the game's seed so its choices can be replayed.
+    public void setRandom(SplittableRandom random) {
+        this.random = random;
+    }
+
+    SplittableRandom getRandom() {
+        return random;
+    }
+
+    public Agent getAgent() {
+        return agent;
+    }
+
+    public void setAgent(Agent agent) {
+        this.agent = agent;
+    }
+
+    public ResourceHand getHand() {
+        return playerResources;
+    }
+
+    // Map copy of the hand for printing.
+    public Map<ResourceType, Integer> getResources() {
+        return playerResources.toMap();
     }
 
     public int getVictoryPoints() {
@@ -52,25 +83,37 @@ class Player {
         victoryPoints++;
     }
 
-    public int getTotalResources() {
-        int total = 0;
-        for (int amount : playerResources.values()) {
-            total += amount;
+    // Gains or loses bonus points (Longest Road) without building anything.
+    void adjustVictoryPoints(int delta) {
+        victoryPoints += delta;
+    }
+
+    // True if the hand pays for one build of this kind.
+    public boolean canAfford(TurnAction.Kind kind) {
+        switch (kind) {
+            case SETTLEMENT:
+                return playerResources.covers(SETTLEMENT_COST);
+            case CITY:
+                return playerResources.covers(CITY_COST);
+            case ROAD:
+                return playerResources.covers(ROAD_COST);
+            default:
+                return true;
         }
-        return total;
+    }
+
+    public int getTotalResources() {
+        return playerResources.getTotal();
     }
 
     // Costs 1 wood, 1 brick, 1 sheep, 1 wheat. Only builds if board says the spot
     // is ok.
     public void buildSettlement(Board board, Intersection buildIntersection) {
-        if (!checkResource(ResourceType.Wood, 1) || !checkResource(ResourceType.Brick, 1) || !checkResource(ResourceType.Sheep, 1) || !checkResource(ResourceType.Wheat, 1)) {
+        if (!playerResources.covers(SETTLEMENT_COST)) {
             return;
         }
         if (board.placeSettlement(buildIntersection, this)) {
-            removeResource(ResourceType.Wood, 1);
-            removeResource(ResourceType.Brick, 1);
-            removeResource(ResourceType.Sheep, 1);
-            removeResource(ResourceType.Wheat, 1);
+            playerResources.pay(SETTLEMENT_COST);
             victoryPoints += 1;
         }
     }
@@ -78,15 +121,16 @@ class Player {
     // Costs 2 wheat, 3 ore. Replaces one of your settlements with a city (same
     // spot).
     public void buildCity(Board board, Intersection buildIntersection) {
-        if (!checkResource(ResourceType.Wheat, 2) || !checkResource(ResourceType.Ore, 3)) {
+        if (!playerResources.covers(CITY_COST)) {
             return;
         }
+        Building existing = buildIntersection.getBuilding();
         if (board.placeCity(buildIntersection, this)) {
-            removeResource(ResourceType.Wheat, 2);
-            removeResource(ResourceType.Ore, 3);
+            playerResources.pay(CITY_COST);
 
+            // Drop the settlement being replaced from the list.
             for (int i = 0; i < playerSettlements.size(); i++) {
-                if (playerSettlements.get(i).getBuildlocation() == buildIntersection) {
+                if (playerSettlements.get(i) == existing) {
                     playerSettlements.remove(i);
                     break;
                 }
@@ -98,104 +142,56 @@ class Player {
     }
 
     public void buildRoad(Board board, Edge buildEdge) {
-        if (!checkResource(ResourceType.Brick, 1) || !checkResource(ResourceType.Wood, 1)) {
+        if (!playerResources.covers(ROAD_COST)) {
             return;
         }
         if (board.placeRoad(buildEdge, this)) {
-            removeResource(ResourceType.Brick, 1);
-            removeResource(ResourceType.Wood, 1);
+            playerResources.pay(ROAD_COST);
         }
     }
 
-    // If over 7 cards we must try to spend (settlement then city then road). Else
-    // pick one build at random and try it.
-    public String takeRandomAction(Board board) {
-        Random random = new Random();
-
-        if (getTotalResources() > 7) {
-            for (int i = 0; i <= 53; i++) {
-                Intersection spot = board.getIntersection(i);
-                if (spot != null && spot.getBuilding() == null) {
-                    int vpBefore = victoryPoints;
-                    buildSettlement(board, spot);
-                    if (victoryPoints > vpBefore) {
-                        return "forced spend: built settlement at " + i;
-                    }
-                }
-            }
-            for (int i = 0; i < playerSettlements.size(); i++) {
-                Intersection spot = playerSettlements.get(i).getBuildlocation();
-                int vpBefore = victoryPoints;
-                buildCity(board, spot);
-                if (victoryPoints > vpBefore) {
-                    return "forced spend: upgraded to city at " + spot.getIntersectionLocation();
-                }
-            }
-            for (int i = 0; i <= 53; i++) {
-                for (int j = i + 1; j <= 53; j++) {
-                    if (board.isValidEdge(i, j)) {
-                        int roadsBefore = playerRoads.size();
-                        Edge edge = new Edge(i, j);
-                        buildRoad(board, edge);
-                        if (playerRoads.size() > roadsBefore) {
-                            return "forced spend: built road at " + i + "-" + j;
-                        }
-                    }
-                }
-            }
-            return "forced spend: could not build anything";
+    // Same as buildRoad(Board, Edge) but by edge ID, so trying an edge does not allocate.
+    public void buildRoad(Board board, int edgeID) {
+        if (!playerResources.covers(ROAD_COST)) {
+            return;
         }
+        if (board.placeRoad(edgeID, this)) {
+            playerResources.pay(ROAD_COST);
+        }
+    }
 
-        int action = random.nextInt(3); // 0 = settlement, 1 = city, 2 = road.
-
-        if (action == 0) {
-            List<Integer> validSpots = new ArrayList<>();
-            for (int i = 0; i <= 53; i++) {
-                Intersection intersection = board.getIntersection(i);
-                if (intersection != null) {
-                    validSpots.add(i);
-                }
-            }
-            if (!validSpots.isEmpty()) {
-                int randomIndex = random.nextInt(validSpots.size());
-                Intersection target = board.getIntersection(validSpots.get(randomIndex));
-                buildSettlement(board, target);
-                return "attempted settlement at " + validSpots.get(randomIndex);
-            }
-
-        } else if (action == 1) {
-            if (!playerSettlements.isEmpty()) {
-                int randomIndex = random.nextInt(playerSettlements.size());
-                Intersection target = playerSettlements.get(randomIndex).getBuildlocation();
-                buildCity(board, target);
-                return "attempted city at " + target.getIntersectionLocation();
-            }
+    // Reverse of a successful buildSettlement: the board gets back what was on the
+    // corner before, and the cards and VP come back. Used by MoveStack.
+    void undoSettlement(Board board, Intersection spot, Building previous) {
+        board.removeSettlement(spot, this, previous);
+        playerResources.refund(SETTLEMENT_COST);
+        victoryPoints--;
+    }
 
-        } else {
-            List<int[]> validEdges = new ArrayList<>();
-            for (int i = 0; i <= 53; i++) {
-                for (int j = i + 1; j <= 53; j++) {
-                    if (board.isValidEdge(i, j)) {
-                        validEdges.add(new int[] { i, j });
-                    }
-                }
-            }
-            if (!validEdges.isEmpty()) {
-                int randomIndex = random.nextInt(validEdges.size());
-                int[] picked = validEdges.get(randomIndex);
-                Edge edge = new Edge(picked[0], picked[1]);
-                buildRoad(board, edge);
-                return "attempted road at edge " + picked[0] + "-" + picked[1];
-            }
-        }
+    // Reverse of a successful buildCity. The old settlement goes back to where it
+    // was in the settlement list.
+    void undoCity(Board board, Intersection spot, Settlement previous, int settlementIndex) {
+        board.revertCity(spot, previous);
+        playerCities.remove(playerCities.size() - 1);
+        playerSettlements.add(settlementIndex, previous);
+        playerResources.refund(CITY_COST);
+        victoryPoints--;
+    }
 
-        return "no action taken";
+    // Reverse of a successful buildRoad.
+    void undoRoad(Board board, int edgeID) {
+        board.removeRoad(edgeID, this);
+        playerResources.refund(ROAD_COST);
     }
 
     public List<Settlement> getPlayerSettlements() {
         return playerSettlements;
     }
 
+    public List<City> getPlayerCities() {
+        return playerCities;
+    }
+
     public List<Road> getPlayerRoads() {
         return playerRoads;
     }
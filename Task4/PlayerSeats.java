@@ -0,0 +1,39 @@
+import java.util.Arrays;
+
+// Gives each player on a board a small seat number (0, 1, 2, ...) the first time they build, so per-player
+// structures can be plain arrays. Shared by the board's BitBoard and MoveGenerator so they agree on numbering.
+final class PlayerSeats {
+    private Player[] seats = new Player[4];
+    private int count;
+
+    // Seat of the player, or -1 if they have not built anything on this board.
+    public int find(Player player) {
+        for (int seat = 0; seat < count; seat++) {
+            if (seats[seat] == player) {
+                return seat;
+            }
+        }
+        return -1;
+    }
+
+    // Seat of the player, handing out the next one if they are new.
+    public int register(Player player) {
+        int seat = find(player);
+        if (seat >= 0) {
+            return seat;
+        }
+        if (count == seats.length) {
+            seats = Arrays.copyOf(seats, count * 2);
+        }
+        seats[count] = player;
+        return count++;
+    }
+
+    public Player get(int seat) {
+        return seats[seat];
+    }
+
+    public int size() {
+        return count;
+    }
+}
@@ -0,0 +1,102 @@
+import java.util.Arrays;
+
+// Who gets paid what for each dice roll. Which hexes and corners produce on each number comes from the shared
+// BoardTopology; this keeps the per-game payout rows, filled in as settlements and cities are placed, so a roll only
+// walks a short array for that number.
+final class ProductionTable {
+    private static final int MAX_ROLL = BoardTopology.MAX_ROLL;
+
+    private final BoardTopology topology;
+    // Corner -> payout row used for each of its producing hexes (topology order), or -1 until something is built.
+    private final int[][] cornerRows;
+
+    // Roll number -> one row per (hex, built corner) pair. A corner on two hexes with the same number has two rows.
+    private final int[] payoutSize = new int[MAX_ROLL + 1];
+    private final int[][] payoutCorner = new int[MAX_ROLL + 1][];
+    private final int[][] payoutSlot = new int[MAX_ROLL + 1][]; // Which of the corner's hexes the row is for.
+    private final int[][] payoutResource = new int[MAX_ROLL + 1][];
+    private final int[][] payoutAmount = new int[MAX_ROLL + 1][];
+    private final Player[][] payoutOwner = new Player[MAX_ROLL + 1][];
+
+    public ProductionTable(BoardTopology topology) {
+        this.topology = topology;
+        for (int roll = 0; roll <= MAX_ROLL; roll++) {
+            int rows = topology.getRollCorners(roll).length;
+            payoutCorner[roll] = new int[rows];
+            payoutSlot[roll] = new int[rows];
+            payoutResource[roll] = new int[rows];
+            payoutAmount[roll] = new int[rows];
+            payoutOwner[roll] = new Player[rows];
+        }
+        cornerRows = new int[topology.getNodeCount()][];
+        for (int corner = 0; corner < cornerRows.length; corner++) {
+            cornerRows[corner] = new int[topology.getCornerRolls(corner).length];
+            Arrays.fill(cornerRows[corner], -1);
+        }
+    }
+
+    // Called after a building is placed or upgraded: every hex around the corner now pays the owner this amount.
+    public void setBuilding(int corner, Player owner, int amount) {
+        int[] cornerRolls = topology.getCornerRolls(corner);
+        for (int i = 0; i < cornerRolls.length; i++) {
+            int roll = cornerRolls[i];
+            int row = cornerRows[corner][i];
+            if (row < 0) {
+                row = payoutSize[roll]++;
+                cornerRows[corner][i] = row;
+                payoutCorner[roll][row] = corner;
+                payoutSlot[roll][row] = i;
+                payoutResource[roll][row] = topology.getCornerResources(corner)[i];
+            }
+            payoutOwner[roll][row] = owner;
+            payoutAmount[roll][row] = amount;
+        }
+    }
+
+    // The corner is empty again: drop its rows (the last row of each roll moves into the gap).
+    public void removeBuilding(int corner) {
+        int[] cornerRolls = topology.getCornerRolls(corner);
+        for (int i = 0; i < cornerRolls.length; i++) {
+            int roll = cornerRolls[i];
+            int row = cornerRows[corner][i];
+            if (row < 0) {
+                continue;
+            }
+            int last = --payoutSize[roll];
+            payoutCorner[roll][row] = payoutCorner[roll][last];
+            payoutSlot[roll][row] = payoutSlot[roll][last];
+            payoutResource[roll][row] = payoutResource[roll][last];
+            payoutAmount[roll][row] = payoutAmount[roll][last];
+            payoutOwner[roll][row] = payoutOwner[roll][last];
+            payoutOwner[roll][last] = null;
+            cornerRows[payoutCorner[roll][row]][payoutSlot[roll][row]] = row;
+            cornerRows[corner][i] = -1;
+        }
+    }
+
+    // Hands out the resources for one roll. No lists or boxing, just the rows for that number.
+    public void payOut(int roll) {
+        if (roll < 0 || roll > MAX_ROLL) {
+            return;
+        }
+        int[] resources = payoutResource[roll];
+        int[] amounts = payoutAmount[roll];
+        Player[] owners = payoutOwner[roll];
+        for (int row = 0; row < payoutSize[roll]; row++) {
+            owners[row].getHand().add(resources[row], amounts[row]);
+        }
+    }
+
+    // Undoes payOut(roll). Only valid while the buildings are the same as when it was paid.
+    public void takeBack(int roll) {
+        if (roll < 0 || roll > MAX_ROLL) {
+            return;
+        }
+        int[] resources = payoutResource[roll];
+        int[] amounts = payoutAmount[roll];
+        Player[] owners = payoutOwner[roll];
+        for (int row = 0; row < payoutSize[roll]; row++) {
+            owners[row].getHand().add(resources[row], -amounts[row]);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+// The original bot. Over 7 cards it must try to spend: the first settlement it can pay for, else the first city,
+// else the first road. Otherwise it picks settlement, city or road at random and tries a random spot of that kind,
+// whether or not it has the cards (the attempt just fails). Random numbers come from the player's own stream, so a
+// seeded game plays out the same as before agents existed.
+final class RandomAgent implements Agent {
+    static final RandomAgent INSTANCE = new RandomAgent();
+
+    private static final TurnAction.Kind[] KINDS = { TurnAction.Kind.SETTLEMENT, TurnAction.Kind.CITY, TurnAction.Kind.ROAD };
+
+    @Override
+    public int chooseMove(GameView view, MoveList moves) {
+        if (view.getTotalResources() > 7) {
+            for (TurnAction.Kind kind : KINDS) {
+                if (moves.count(kind) > 0 && view.canAfford(kind)) {
+                    return moves.start(kind);
+                }
+            }
+            return PASS;
+        }
+
+        TurnAction.Kind kind = KINDS[view.getRandom().nextInt(3)];
+        int count = moves.count(kind);
+        if (count == 0) {
+            return PASS;
+        }
+        return moves.start(kind) + view.getRandom().nextInt(count);
+    }
+}
@@ -0,0 +1,110 @@
+import java.util.EnumMap;
+import java.util.Map;
+
+// A player's cards: one count per ResourceType (by ordinal) plus a running total, so adding, checking and paying
+// never box or hash anything. Also keeps the hand's Zobrist hash up to date for Zobrist.position.
+final class ResourceHand {
+    private static final ResourceType[] RESOURCES = ResourceType.values();
+
+    private final int ownerID;
+    private final int[] counts = new int[RESOURCES.length];
+    private int total;
+    private long hash;
+
+    public ResourceHand(int ownerID) {
+        this.ownerID = ownerID;
+        for (int i = 0; i < counts.length; i++) {
+            hash ^= Zobrist.hand(ownerID, i, 0);
+        }
+    }
+
+    public void add(int resourceIndex, int quantity) {
+        setCount(resourceIndex, counts[resourceIndex] + quantity);
+    }
+
+    private void setCount(int resourceIndex, int count) {
+        hash ^= Zobrist.hand(ownerID, resourceIndex, counts[resourceIndex]) ^ Zobrist.hand(ownerID, resourceIndex, count);
+        total += count - counts[resourceIndex];
+        counts[resourceIndex] = count;
+    }
+
+    public void add(ResourceType resource, int quantity) {
+        add(resource.ordinal(), quantity);
+    }
+
+    public int get(ResourceType resource) {
+        return counts[resource.ordinal()];
+    }
+
+    public boolean has(ResourceType resource, int quantity) {
+        return counts[resource.ordinal()] >= quantity;
+    }
+
+    // Takes the cards if there are enough. Returns false (and changes nothing) otherwise.
+    public boolean remove(ResourceType resource, int quantity) {
+        int index = resource.ordinal();
+        if (counts[index] < quantity) {
+            return false;
+        }
+        setCount(index, counts[index] - quantity);
+        return true;
+    }
+
+    // True if the hand covers a cost given as counts by ordinal.
+    public boolean covers(int[] cost) {
+        for (int i = 0; i < cost.length; i++) {
+            if (counts[i] < cost[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Pays a cost given as counts by ordinal. Caller checks covers() first.
+    public void pay(int[] cost) {
+        for (int i = 0; i < cost.length; i++) {
+            if (cost[i] != 0) {
+                setCount(i, counts[i] - cost[i]);
+            }
+        }
+    }
+
+    // Gives a paid cost back (undo of pay).
+    public void refund(int[] cost) {
+        for (int i = 0; i < cost.length; i++) {
+            if (cost[i] != 0) {
+                setCount(i, counts[i] + cost[i]);
+            }
+        }
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public long getZobristHash() {
+        return hash;
+    }
+
+    // Copy of the hand as a map, for printing. Leaves out resources the player has none of.
+    public Map<ResourceType, Integer> toMap() {
+        Map<ResourceType, Integer> view = new EnumMap<>(ResourceType.class);
+        for (ResourceType resource : RESOURCES) {
+            if (counts[resource.ordinal()] > 0) {
+                view.put(resource, counts[resource.ordinal()]);
+            }
+        }
+        return view;
+    }
+
+    // Build cost as counts by ordinal.
+    public static int[] cost(int wood, int brick, int wheat, int sheep, int ore) {
+        int[] cost = new int[RESOURCES.length];
+        cost[ResourceType.Wood.ordinal()] = wood;
+        cost[ResourceType.Brick.ordinal()] = brick;
+        cost[ResourceType.Wheat.ordinal()] = wheat;
+        cost[ResourceType.Sheep.ordinal()] = sheep;
+        cost[ResourceType.Ore.ordinal()] = ore;
+        return cost;
+    }
+}
@@ -0,0 +1,99 @@
+import java.util.ArrayList;
+import java.util.List;
+
+// Keeps the last N turns in memory (as plain ints, nothing allocated per turn) so a game can be inspected after the
+// fact, e.g. when a batch run hits something odd. Round and game-end events only update counters.
+final class RingBufferEventSink implements GameEventSink {
+    private static final TurnAction.Kind[] KINDS = TurnAction.Kind.values();
+
+    private final int[] rounds;
+    private final int[] playerIDs;
+    private final int[] rolls;
+    private final int[] kinds;
+    private final boolean[] forced;
+    private final boolean[] built;
+    private final int[] locations;
+    private final int[] roadEnds;
+    private long turnsSeen;
+    private int lastRound;
+    private int winnerID;
+
+    public RingBufferEventSink(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1, not " + capacity);
+        }
+        rounds = new int[capacity];
+        playerIDs = new int[capacity];
+        rolls = new int[capacity];
+        kinds = new int[capacity];
+        forced = new boolean[capacity];
+        built = new boolean[capacity];
+        locations = new int[capacity];
+        roadEnds = new int[capacity];
+    }
+
+    @Override
+    public void roundStarted(int round) {
+        lastRound = round;
+    }
+
+    @Override
+    public void turnPlayed(int round, Player player, int roll, TurnAction action) {
+        int slot = (int) (turnsSeen++ % rounds.length);
+        rounds[slot] = round;
+        playerIDs[slot] = player.getPlayerID();
+        rolls[slot] = roll;
+        kinds[slot] = action.getKind().ordinal();
+        forced[slot] = action.isForced();
+        built[slot] = action.isBuilt();
+        locations[slot] = action.getLocation();
+        roadEnds[slot] = action.getRoadEnd();
+    }
+
+    @Override
+    public void roundEnded(int round, List<Player> players) {
+    }
+
+    @Override
+    public void gameWon(Player winner) {
+        winnerID = winner.getPlayerID();
+    }
+
+    @Override
+    public void gameDrawn(int maxRounds) {
+        winnerID = 0;
+    }
+
+    public long getTurnsSeen() {
+        return turnsSeen;
+    }
+
+    public int getLastRound() {
+        return lastRound;
+    }
+
+    // ID of the winner, or 0 if there was none (yet).
+    public int getWinnerID() {
+        return winnerID;
+    }
+
+    // The kept turns as log lines (the same as TextEventSink writes), oldest first.
+    public List<String> recentTurns() {
+        int kept = (int) Math.min(turnsSeen, rounds.length);
+        List<String> lines = new ArrayList<>(kept);
+        TurnAction action = new TurnAction();
+        for (long turn = turnsSeen - kept; turn < turnsSeen; turn++) {
+            int slot = (int) (turn % rounds.length);
+            TurnAction.Kind kind = KINDS[kinds[slot]];
+            if (kind == TurnAction.Kind.ROAD) {
+                action.setRoad(forced[slot], built[slot], locations[slot], roadEnds[slot]);
+            } else if (kind == TurnAction.Kind.NONE) {
+                action.setNone(forced[slot]);
+            } else {
+                action.set(kind, forced[slot], built[slot], locations[slot]);
+            }
+            lines.add(action.logLine(rounds[slot], playerIDs[slot], rolls[slot]));
+        }
+        return lines;
+    }
+}
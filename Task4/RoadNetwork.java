@@ -0,0 +1,56 @@
+import java.util.Arrays;
+
+// Per-player road counts at every corner for one board, on any map size, so "does my network touch this corner" is
+// one array read. That is the only connectivity question the rules ask: a settlement needs one of your roads at the
+// corner, and a road needs your building or one of your roads at an end. Neither depends on where the rest of the
+// network goes, and a building only matters at the corner being asked about, so settlements never change the counts.
+final class RoadNetwork {
+    private final BoardAdjacency adjacency;
+    private final PlayerSeats seats;
+    private final int nodeCount;
+
+    // Per seat, indexed by corner.
+    private int[][] roadsAt = new int[0][];
+
+    public RoadNetwork(BoardAdjacency adjacency, PlayerSeats seats) {
+        this.adjacency = adjacency;
+        this.seats = seats;
+        this.nodeCount = adjacency.getNodeCount();
+    }
+
+    // True if one of the player's roads ends at this corner.
+    public boolean touches(int intersectionID, Player player) {
+        int seat = seats.find(player);
+        return seat >= 0 && seat < roadsAt.length && roadsAt[seat][intersectionID] > 0;
+    }
+
+    // Number of the player's roads ending at this corner.
+    public int roadCount(int intersectionID, Player player) {
+        int seat = seats.find(player);
+        return seat >= 0 && seat < roadsAt.length ? roadsAt[seat][intersectionID] : 0;
+    }
+
+    public void roadAdded(int edgeID, Player player) {
+        int seat = seatFor(player);
+        roadsAt[seat][adjacency.edgeStart(edgeID)]++;
+        roadsAt[seat][adjacency.edgeEnd(edgeID)]++;
+    }
+
+    public void roadRemoved(int edgeID, Player player) {
+        int seat = seatFor(player);
+        roadsAt[seat][adjacency.edgeStart(edgeID)]--;
+        roadsAt[seat][adjacency.edgeEnd(edgeID)]--;
+    }
+
+    private int seatFor(Player player) {
+        int seat = seats.register(player);
+        if (seat >= roadsAt.length) {
+            int old = roadsAt.length;
+            roadsAt = Arrays.copyOf(roadsAt, seat + 1);
+            for (int i = old; i <= seat; i++) {
+                roadsAt[i] = new int[nodeCount];
+            }
+        }
+        return seat;
+    }
+}
@@ -0,0 +1,551 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Plays games to the end as fast as possible for search. load() copies a position (buildings, roads, hands, VP,
+// Longest Road) out of a Board into flat int arrays, and play() runs turns on those arrays alone: roll, pay out,
+// then one random build the player can pay for. No Player, Building or MoveStack is touched and nothing is logged.
+// All arrays are sized for the map when the engine is made and reused by every load and game, so after the first
+// load a rollout makes no garbage. reset() puts the loaded position back, so one load serves any number of games.
+// The rules are Board's: the distance rule only holds while a player has fewer than 2 settlements, after that they
+// may settle on any empty corner their roads reach; roads must touch their building or a road not cut by an opponent; and
+// Longest Road (5+, 2 VP) only changes hands when someone beats the holder. One engine per thread.
+final class RolloutEngine {
+    static final int WIN_POINTS = 10;
+
+    private static final ResourceType[] RESOURCE_TYPES = ResourceType.values();
+    private static final int RESOURCES = RESOURCE_TYPES.length;
+    private static final int WOOD = ResourceType.Wood.ordinal();
+    private static final int BRICK = ResourceType.Brick.ordinal();
+    private static final int WHEAT = ResourceType.Wheat.ordinal();
+    private static final int SHEEP = ResourceType.Sheep.ordinal();
+    private static final int ORE = ResourceType.Ore.ordinal();
+    // Build kinds, as collect() and candidate() take them.
+    static final int SETTLEMENT = 0;
+    static final int CITY = 1;
+    static final int ROAD = 2;
+
+    private final BoardTopology topology;
+    private final BoardAdjacency adjacency;
+    private final int nodeCount;
+    private final int edgeCount;
+    // Roll -> producing corners and the resource each one gets (a corner on two such hexes is listed twice).
+    private final int[][] rollCorners;
+    private final int[][] rollResources;
+
+    private int players;
+    private int toMove;
+    // The position as loaded, copied back by reset().
+    private final int[] savedCornerOwner;
+    private final boolean[] savedCity;
+    private final int[] savedEdgeOwner;
+    private int[] savedRoadsAt;
+    private int[] savedHand;
+    private int[] savedVictoryPoints;
+    private int[] savedSettlements;
+    private int[] savedRoadCount;
+    private int[] savedTrail;
+    private int savedHolder;
+
+    // Live state. Corners and edges hold the owner's seat or -1; per-player arrays are indexed by seat (roadsAt and
+    // hand by seat * nodeCount + corner and seat * RESOURCES + resource).
+    private final int[] cornerOwner;
+    private final boolean[] city;
+    private final int[] edgeOwner;
+    private int[] roadsAt;
+    private int[] hand;
+    private int[] victoryPoints;
+    // Length of Player.getPlayerSettlements(): settlements built, minus those made cities.
+    private int[] settlements;
+    private int[] roadCount;
+    private int[] trail;
+    private int holder;
+
+    // Scratch for move picking and the trail search.
+    private final int[] candidates;
+    private final boolean[] used;
+    private final int[] stamp;
+    private final int[] cornerStamp;
+    private final int[] stack;
+    private final int[] componentEdges;
+    private int currentStamp;
+
+    public RolloutEngine(BoardTopology topology) {
+        this.topology = topology;
+        this.adjacency = topology.getAdjacency();
+        this.nodeCount = adjacency.getNodeCount();
+        this.edgeCount = adjacency.getEdgeCount();
+        rollCorners = new int[BoardTopology.MAX_ROLL + 1][];
+        rollResources = new int[BoardTopology.MAX_ROLL + 1][];
+        for (int roll = 0; roll <= BoardTopology.MAX_ROLL; roll++) {
+            int[] hexes = topology.getRollHexes(roll);
+            rollCorners[roll] = topology.getRollCorners(roll);
+            rollResources[roll] = new int[rollCorners[roll].length];
+            for (int i = 0; i < rollCorners[roll].length; i++) {
+                rollResources[roll][i] = topology.getHex(hexes[i / 6]).produceResource().ordinal();
+            }
+        }
+
+        cornerOwner = new int[nodeCount];
+        city = new boolean[nodeCount];
+        edgeOwner = new int[edgeCount];
+        savedCornerOwner = new int[nodeCount];
+        savedCity = new boolean[nodeCount];
+        savedEdgeOwner = new int[edgeCount];
+        candidates = new int[ROAD * nodeCount + edgeCount];
+        used = new boolean[edgeCount];
+        stamp = new int[edgeCount];
+        cornerStamp = new int[nodeCount];
+        stack = new int[edgeCount];
+        componentEdges = new int[edgeCount];
+        sizeFor(4);
+    }
+
+    // Copies the position: players in turn order (every owner of a building or road on the board must be listed) and
+    // the seat whose turn it is. Only allocates if there are more players than any earlier load.
+    public void load(Board board, List<Player> order, int seatToMove) {
+        if (board.getTopology() != topology) {
+            throw new IllegalArgumentException("Board is on a different map from this engine");
+        }
+        if (order.size() > victoryPoints.length) {
+            sizeFor(order.size());
+        }
+        players = order.size();
+        toMove = seatToMove;
+
+        Arrays.fill(savedRoadsAt, 0);
+        Arrays.fill(savedRoadCount, 0);
+        for (int corner = 0; corner < nodeCount; corner++) {
+            Building building = board.getIntersection(corner).getBuilding();
+            savedCornerOwner[corner] = building == null ? -1 : seatOf(order, building.getOwner());
+            savedCity[corner] = building instanceof City;
+        }
+        for (int edge = 0; edge < edgeCount; edge++) {
+            Player owner = board.getEdgeOwner(edge);
+            int seat = owner == null ? -1 : seatOf(order, owner);
+            savedEdgeOwner[edge] = seat;
+            if (seat >= 0) {
+                savedRoadsAt[seat * nodeCount + adjacency.edgeStart(edge)]++;
+                savedRoadsAt[seat * nodeCount + adjacency.edgeEnd(edge)]++;
+                savedRoadCount[seat]++;
+            }
+        }
+        for (int seat = 0; seat < players; seat++) {
+            Player player = order.get(seat);
+            ResourceHand playerHand = player.getHand();
+            for (ResourceType resource : RESOURCE_TYPES) {
+                savedHand[seat * RESOURCES + resource.ordinal()] = playerHand.get(resource);
+            }
+            savedVictoryPoints[seat] = player.getVictoryPoints();
+            savedSettlements[seat] = player.getPlayerSettlements().size();
+        }
+        Player longest = board.getLongestRoad().getHolder();
+        savedHolder = longest == null ? -1 : seatOf(order, longest);
+
+        reset();
+        for (int seat = 0; seat < players; seat++) {
+            trail[seat] = longestTrail(seat);
+        }
+        System.arraycopy(trail, 0, savedTrail, 0, players);
+    }
+
+    // Back to the loaded position.
+    public void reset() {
+        System.arraycopy(savedCornerOwner, 0, cornerOwner, 0, nodeCount);
+        System.arraycopy(savedCity, 0, city, 0, nodeCount);
+        System.arraycopy(savedEdgeOwner, 0, edgeOwner, 0, edgeCount);
+        System.arraycopy(savedRoadsAt, 0, roadsAt, 0, players * nodeCount);
+        System.arraycopy(savedHand, 0, hand, 0, players * RESOURCES);
+        System.arraycopy(savedVictoryPoints, 0, victoryPoints, 0, players);
+        System.arraycopy(savedSettlements, 0, settlements, 0, players);
+        System.arraycopy(savedRoadCount, 0, roadCount, 0, players);
+        System.arraycopy(savedTrail, 0, trail, 0, players);
+        holder = savedHolder;
+    }
+
+    // Plays up to maxTurns turns, starting with the seat to move, and returns the seat that reached 10 VP (or -1).
+    // If firstRollDone, the player to move has already rolled and been paid for this turn.
+    public int play(SplittableRandom random, int maxTurns, boolean firstRollDone) {
+        int seat = toMove;
+        for (int turn = 0; turn < maxTurns; turn++) {
+            if (turn > 0 || !firstRollDone) {
+                produce(roll(random));
+            }
+            randomBuild(seat, random);
+            if (victoryPoints[seat] >= WIN_POINTS) {
+                return seat;
+            }
+            seat = seat + 1 == players ? 0 : seat + 1;
+        }
+        return -1;
+    }
+
+    public int getPlayerCount() {
+        return players;
+    }
+
+    public int getVictoryPoints(int seat) {
+        return victoryPoints[seat];
+    }
+
+    public int getResource(int seat, ResourceType resource) {
+        return hand[seat * RESOURCES + resource.ordinal()];
+    }
+
+    // Length of the seat's longest road (0 if none).
+    public int getLongestRoadLength(int seat) {
+        return trail[seat];
+    }
+
+    // Seat holding Longest Road, or -1.
+    public int getLongestRoadHolder() {
+        return holder;
+    }
+
+    // Dice total with Dice.roll's odds, from one uniform number.
+    static int roll(SplittableRandom random) {
+        int r = random.nextInt(Dice.OUTCOMES);
+        int total = 2;
+        while (r >= Dice.ways(total)) {
+            r -= Dice.ways(total++);
+        }
+        return total;
+    }
+
+    // The steps a game is made of are package-private so Checks can play them in lockstep with a Board.
+    void produce(int roll) {
+        int[] corners = rollCorners[roll];
+        int[] resources = rollResources[roll];
+        for (int i = 0; i < corners.length; i++) {
+            int owner = cornerOwner[corners[i]];
+            if (owner >= 0) {
+                hand[owner * RESOURCES + resources[i]] += city[corners[i]] ? 2 : 1;
+            }
+        }
+    }
+
+    // Picks one of the kinds the player can pay for and has a spot for, then a spot of that kind, both uniformly.
+    private void randomBuild(int seat, SplittableRandom random) {
+        int h = seat * RESOURCES;
+        boolean settlementOk = hand[h + WOOD] >= 1 && hand[h + BRICK] >= 1 && hand[h + WHEAT] >= 1 && hand[h + SHEEP] >= 1;
+        boolean cityOk = hand[h + WHEAT] >= 2 && hand[h + ORE] >= 3;
+        boolean roadOk = hand[h + WOOD] >= 1 && hand[h + BRICK] >= 1;
+
+        // Reservoir over the kinds that have at least one spot. Each kind's spots go in their own part of candidates.
+        int kinds = 0;
+        int chosen = -1;
+        int count = 0;
+        for (int kind = SETTLEMENT; kind <= ROAD; kind++) {
+            boolean ok = kind == SETTLEMENT ? settlementOk : kind == CITY ? cityOk : roadOk;
+            int spots = ok ? collect(kind, seat) : 0;
+            if (spots > 0 && random.nextInt(++kinds) == 0) {
+                chosen = kind;
+                count = spots;
+            }
+        }
+        if (chosen < 0) {
+            return;
+        }
+        int target = candidates[chosen * nodeCount + random.nextInt(count)];
+        switch (chosen) {
+            case SETTLEMENT:
+                buildSettlement(seat, target);
+                break;
+            case CITY:
+                buildCity(seat, target);
+                break;
+            default:
+                buildRoad(seat, target);
+                break;
+        }
+    }
+
+    // Fills the kind's part of candidates (from kind * nodeCount) with the player's legal spots and returns how many.
+    int collect(int kind, int seat) {
+        int first = kind * nodeCount;
+        int count = first;
+        int base = seat * nodeCount;
+        if (kind == SETTLEMENT) {
+            boolean mayUseOpen = settlements[seat] < 2;
+            for (int corner = 0; corner < nodeCount; corner++) {
+                boolean reached = roadsAt[base + corner] > 0;
+                if (cornerOwner[corner] < 0 && (mayUseOpen ? reached || isOpen(corner) : reached && !isOpen(corner))) {
+                    candidates[count++] = corner;
+                }
+            }
+        } else if (kind == CITY) {
+            for (int corner = 0; corner < nodeCount; corner++) {
+                if (cornerOwner[corner] == seat && !city[corner]) {
+                    candidates[count++] = corner;
+                }
+            }
+        } else {
+            for (int edge = 0; edge < edgeCount; edge++) {
+                if (edgeOwner[edge] < 0 && canReach(seat, adjacency.edgeStart(edge), adjacency.edgeEnd(edge))) {
+                    candidates[count++] = edge;
+                }
+            }
+        }
+        return count - first;
+    }
+
+    // k-th spot from the last collect() of that kind.
+    int candidate(int kind, int k) {
+        return candidates[kind * nodeCount + k];
+    }
+
+    // Distance rule: the corner and all its neighbours are empty.
+    private boolean isOpen(int corner) {
+        if (cornerOwner[corner] >= 0) {
+            return false;
+        }
+        for (int k = 0; k < adjacency.degree(corner); k++) {
+            if (cornerOwner[adjacency.neighbour(corner, k)] >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // GameRules.checkRoadPlacement for an empty edge.
+    private boolean canReach(int seat, int start, int end) {
+        if (cornerOwner[start] == seat || cornerOwner[end] == seat) {
+            return true;
+        }
+        return (cornerOwner[start] < 0 && roadsAt[seat * nodeCount + start] > 0) || (cornerOwner[end] < 0 && roadsAt[seat * nodeCount + end] > 0);
+    }
+
+    void buildSettlement(int seat, int corner) {
+        int h = seat * RESOURCES;
+        hand[h + WOOD]--;
+        hand[h + BRICK]--;
+        hand[h + WHEAT]--;
+        hand[h + SHEEP]--;
+        cornerOwner[corner] = seat;
+        city[corner] = false;
+        settlements[seat]++;
+        victoryPoints[seat]++;
+        // The corner now cuts (or joins) the roads of anyone who has one there.
+        boolean changed = false;
+        for (int p = 0; p < players; p++) {
+            if (roadsAt[p * nodeCount + corner] > 0) {
+                trail[p] = longestTrail(p);
+                changed = true;
+            }
+        }
+        if (changed) {
+            updateHolder();
+        }
+    }
+
+    void buildCity(int seat, int corner) {
+        int h = seat * RESOURCES;
+        hand[h + WHEAT] -= 2;
+        hand[h + ORE] -= 3;
+        city[corner] = true;
+        settlements[seat]--;
+        victoryPoints[seat]++;
+    }
+
+    void buildRoad(int seat, int edge) {
+        int h = seat * RESOURCES;
+        hand[h + WOOD]--;
+        hand[h + BRICK]--;
+        edgeOwner[edge] = seat;
+        roadsAt[seat * nodeCount + adjacency.edgeStart(edge)]++;
+        roadsAt[seat * nodeCount + adjacency.edgeEnd(edge)]++;
+        roadCount[seat]++;
+        int start = adjacency.edgeStart(edge);
+        int end = adjacency.edgeEnd(edge);
+        // Only the new road's component can have changed, and it now holds every trail of the ones it joined.
+        if (!extendsFrom(seat, edge, start, end) && !extendsFrom(seat, edge, end, start)) {
+            trail[seat] = Math.max(trail[seat], componentTrail(seat, edge));
+        }
+        updateHolder();
+    }
+
+    // Same shortcut as LongestRoad: a road sticking out of the player's roads at "from" to a dead end "tip" leaves
+    // every other trail alone, and a trail using it must end with it, so only trails leaving "from" are searched.
+    private boolean extendsFrom(int seat, int edge, int from, int tip) {
+        int base = seat * nodeCount;
+        if (isCut(from, seat) || roadsAt[base + from] < 2 || (!isCut(tip, seat) && roadsAt[base + tip] > 1)) {
+            return false;
+        }
+        used[edge] = true;
+        trail[seat] = Math.max(trail[seat], 1 + extend(from, seat));
+        used[edge] = false;
+        return true;
+    }
+
+    // Same rule as LongestRoad.updateHolder.
+    private void updateHolder() {
+        int best = 0;
+        int leader = -1;
+        boolean tie = false;
+        for (int seat = 0; seat < players; seat++) {
+            if (trail[seat] > best) {
+                best = trail[seat];
+                leader = seat;
+                tie = false;
+            } else if (trail[seat] == best) {
+                tie = true;
+            }
+        }
+        if (best < LongestRoad.MIN_LENGTH) {
+            setHolder(-1);
+        } else if (holder < 0 || trail[holder] != best) {
+            setHolder(tie ? -1 : leader);
+        }
+    }
+
+    private void setHolder(int seat) {
+        if (seat == holder) {
+            return;
+        }
+        if (holder >= 0) {
+            victoryPoints[holder] -= LongestRoad.VICTORY_POINTS;
+        }
+        if (seat >= 0) {
+            victoryPoints[seat] += LongestRoad.VICTORY_POINTS;
+        }
+        holder = seat;
+    }
+
+    // Longest trail over the player's roads that does not pass through an opponent's building: the best of each
+    // component's longest trail.
+    private int longestTrail(int seat) {
+        int best = 0;
+        if (currentStamp > Integer.MAX_VALUE - edgeCount) {
+            restartStamps();
+        }
+        int mark = currentStamp + 1;
+        for (int edge = 0; edge < edgeCount; edge++) {
+            if (edgeOwner[edge] == seat && stamp[edge] < mark) {
+                best = Math.max(best, componentTrail(seat, edge));
+            }
+        }
+        return best;
+    }
+
+    // Longest trail in the component holding the road (roads joined at corners no opponent has built on). As in
+    // LongestRoad, trails only start where they could not be extended backwards (not exactly 2 of the player's
+    // roads, or cut) unless the component is a plain loop, and the search stops once a trail uses every road.
+    private int componentTrail(int seat, int seed) {
+        if (currentStamp == Integer.MAX_VALUE) {
+            restartStamps();
+        }
+        int mark = ++currentStamp;
+        int size = 0;
+        int top = 0;
+        stamp[seed] = mark;
+        stack[top++] = seed;
+        while (top > 0) {
+            int edge = stack[--top];
+            componentEdges[size++] = edge;
+            for (int end = 0; end < 2; end++) {
+                int corner = end == 0 ? adjacency.edgeStart(edge) : adjacency.edgeEnd(edge);
+                if (isCut(corner, seat)) {
+                    continue;
+                }
+                for (int k = 0; k < adjacency.degree(corner); k++) {
+                    int next = adjacency.neighbourEdge(corner, k);
+                    if (edgeOwner[next] == seat && stamp[next] != mark) {
+                        stamp[next] = mark;
+                        stack[top++] = next;
+                    }
+                }
+            }
+        }
+
+        int best = 0;
+        boolean triedAny = false;
+        int base = seat * nodeCount;
+        for (int i = 0; i < size; i++) {
+            for (int end = 0; end < 2; end++) {
+                int corner = end == 0 ? adjacency.edgeStart(componentEdges[i]) : adjacency.edgeEnd(componentEdges[i]);
+                if (cornerStamp[corner] == mark) {
+                    continue;
+                }
+                cornerStamp[corner] = mark;
+                if (roadsAt[base + corner] != 2 || isCut(corner, seat)) {
+                    best = Math.max(best, extendInto(corner, seat, mark));
+                    triedAny = true;
+                    if (best >= size) {
+                        return best;
+                    }
+                }
+            }
+        }
+        if (!triedAny) {
+            best = extendInto(adjacency.edgeStart(seed), seat, mark);
+        }
+        return best;
+    }
+
+    private void restartStamps() {
+        Arrays.fill(stamp, 0);
+        Arrays.fill(cornerStamp, 0);
+        currentStamp = 0;
+    }
+
+    // First step of a trail from a component corner: only into roads of that component, since a corner with an
+    // opponent's building can also start roads of other components.
+    private int extendInto(int corner, int seat, int mark) {
+        int best = 0;
+        for (int k = 0; k < adjacency.degree(corner); k++) {
+            int edge = adjacency.neighbourEdge(corner, k);
+            if (stamp[edge] != mark || edgeOwner[edge] != seat) {
+                continue;
+            }
+            used[edge] = true;
+            int next = adjacency.neighbour(corner, k);
+            best = Math.max(best, 1 + (isCut(next, seat) ? 0 : extend(next, seat)));
+            used[edge] = false;
+        }
+        return best;
+    }
+
+    private int extend(int corner, int seat) {
+        int best = 0;
+        for (int k = 0; k < adjacency.degree(corner); k++) {
+            int edge = adjacency.neighbourEdge(corner, k);
+            if (edgeOwner[edge] != seat || used[edge]) {
+                continue;
+            }
+            used[edge] = true;
+            int next = adjacency.neighbour(corner, k);
+            int length = 1 + (isCut(next, seat) ? 0 : extend(next, seat));
+            used[edge] = false;
+            best = Math.max(best, length);
+        }
+        return best;
+    }
+
+    private boolean isCut(int corner, int seat) {
+        return cornerOwner[corner] >= 0 && cornerOwner[corner] != seat;
+    }
+
+    private static int seatOf(List<Player> order, Player player) {
+        for (int seat = 0; seat < order.size(); seat++) {
+            if (order.get(seat) == player) {
+                return seat;
+            }
+        }
+        throw new IllegalArgumentException("Player " + player.getPlayerID() + " is not in the turn order");
+    }
+
+    private void sizeFor(int playerCount) {
+        savedRoadsAt = new int[playerCount * nodeCount];
+        savedHand = new int[playerCount * RESOURCES];
+        savedVictoryPoints = new int[playerCount];
+        savedSettlements = new int[playerCount];
+        savedRoadCount = new int[playerCount];
+        savedTrail = new int[playerCount];
+        roadsAt = new int[playerCount * nodeCount];
+        hand = new int[playerCount * RESOURCES];
+        victoryPoints = new int[playerCount];
+        settlements = new int[playerCount];
+        roadCount = new int[playerCount];
+        trail = new int[playerCount];
+    }
+}
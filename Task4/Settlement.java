@@ -9,4 +9,9 @@ class Settlement extends Building {
         return 1;
     }
 
+    @Override
+    public int getResourceYield() {
+        return 1;
+    }
+
 }
\ No newline at end of file
@@ -1,49 +1,65 @@
 import java.util.List;
 
-// Runs round by round: each player rolls and takes one action, then we print VPs. Stops at 10 VP or max rounds.
+// Runs round by round: each player rolls and takes one action, then we report VPs. Stops at 10 VP or max rounds.
+// Everything that happens goes to the event sink (the console unless told otherwise).
 class Simulator {
 
     private List<Player> players;
     private Turn turn;
     private int maxRounds;
+    private GameEventSink sink;
 
     public Simulator(List<Player> players, Turn turn, int maxRounds) {
+        this(players, turn, maxRounds, new ConsoleEventSink());
+    }
+
+    public Simulator(List<Player> players, Turn turn, int maxRounds, GameEventSink sink) {
         this.players = players;
         this.turn = turn;
         this.maxRounds = maxRounds;
+        this.sink = sink;
     }
 
-    public void runGame() {
+    public GameResult runGame() {
         int round = 1;
         boolean gameOver = false;
+        int winnerSeat = -1;
 
         while (!gameOver && round <= maxRounds) {
 
-            System.out.println("******Round " + round + "******");
+            sink.roundStarted(round);
 
-            for (Player player : players) {
-                String result = turn.execute(player, round);
-                System.out.println(result);
+            for (int seat = 0; seat < players.size(); seat++) {
+                Player player = players.get(seat);
+                turn.execute(players, seat, round);
 
                 if (player.getVictoryPoints() >= 10) {
-                    System.out.println("Player " + player.getPlayerID() + " wins with " + player.getVictoryPoints() + " victory points!");
+                    sink.gameWon(player);
 
                     gameOver = true;
+                    winnerSeat = seat;
                     break;
                 }
             }
 
-            for (Player player : players) {
-                System.out.println("Player " + player.getPlayerID() + " VP: " + player.getVictoryPoints());
-            }
-            System.out.println();
+            sink.roundEnded(round, players);
 
-            round++;
+            if (!gameOver) {
+                round++;
+            }
         }
 
         if (!gameOver) {
             // Nobody reached 10 VP before round limit.
-            System.out.println("Game ended after " + maxRounds + " rounds. No winner.");
+            sink.gameDrawn(maxRounds);
+            round = maxRounds;
+        }
+
+        int[] finalVictoryPoints = new int[players.size()];
+        for (int seat = 0; seat < players.size(); seat++) {
+            finalVictoryPoints[seat] = players.get(seat).getVictoryPoints();
         }
+        int winnerID = winnerSeat >= 0 ? players.get(winnerSeat).getPlayerID() : 0;
+        return new GameResult(winnerSeat, winnerID, round, finalVictoryPoints);
     }
-}
\ No newline at end of file
+}
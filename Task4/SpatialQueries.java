@@ -0,0 +1,163 @@
+// Distance-based questions about one board, answered from the map's HopDistances: what is near a corner, how far
+// a player's network is from it, the nearest corner they could settle, and the fewest roads needed to reach a
+// corner. The road route is an A* search over unbuilt edges using the hop distance as its estimate; the scratch
+// arrays are kept between calls, so like the rest of Board this is for one thread at a time.
+final class SpatialQueries {
+    private final Board board;
+    private final BoardAdjacency adjacency;
+    private final HopDistances distances;
+
+    // A* state, reset per search by bumping the stamp instead of clearing.
+    private final int[] cost;
+    private final int[] costStamp;
+    private final int[] closedStamp;
+    private final int[] viaEdge;
+    private int currentStamp;
+    // Bucket queue: one linked list of pushed corners per f = cost + estimate.
+    private final int[] bucketHead;
+    private final int[] bucketStamp;
+    private final int[] entryCorner;
+    private final int[] entryNext;
+
+    public SpatialQueries(Board board) {
+        this.board = board;
+        this.adjacency = board.getAdjacency();
+        this.distances = board.getTopology().getDistances();
+        int n = adjacency.getNodeCount();
+        cost = new int[n];
+        costStamp = new int[n];
+        closedStamp = new int[n];
+        viaEdge = new int[n];
+        bucketHead = new int[n + distances.getMaxDistance() + 1];
+        bucketStamp = new int[bucketHead.length];
+        // Every corner can be pushed once as a start and once per edge end that improves it.
+        entryCorner = new int[n + 2 * adjacency.getEdgeCount()];
+        entryNext = new int[entryCorner.length];
+    }
+
+    public HopDistances getDistances() {
+        return distances;
+    }
+
+    // True if the player can build a road out of this corner: their own building, or their road with no
+    // opponent's building on the corner.
+    public boolean isOnNetwork(int intersectionID, Player player) {
+        Intersection intersection = board.getIntersection(intersectionID);
+        if (intersection.getBuilding() != null) {
+            return intersection.getPlayer() == player;
+        }
+        return board.getRoadNetwork().touches(intersectionID, player);
+    }
+
+    // Hops from the nearest corner of the player's network to the target, ignoring what is built in between
+    // (0 if the target is on it). -1 if the player has no network yet.
+    public int distanceToNetwork(Player player, int target) {
+        int n = adjacency.getNodeCount();
+        for (int i = 0; i < n; i++) {
+            int corner = distances.nearest(target, i);
+            if (isOnNetwork(corner, player)) {
+                return distances.distance(target, corner);
+            }
+        }
+        return -1;
+    }
+
+    // Empty corner closest to from where the player may settle now (MoveGenerator's spots), or -1.
+    public int nearestSettlementSpot(Player player, int from) {
+        MoveGenerator moves = board.getMoveGenerator();
+        int n = adjacency.getNodeCount();
+        for (int i = 0; i < n; i++) {
+            int corner = distances.nearest(from, i);
+            if (moves.isSettlementSpot(player, corner)) {
+                return corner;
+            }
+        }
+        return -1;
+    }
+
+    // Fewest new roads linking the player's network to the target corner, as edge IDs in build order (each one
+    // legal once the ones before it are built). Empty if the target is already on the network, null if it cannot
+    // be reached (no network, or cut off by other roads and buildings). Routes never pass through a corner with an
+    // opponent's building, but may end on one.
+    public int[] shortestRoadPath(Player player, int target) {
+        if (isOnNetwork(target, player)) {
+            return new int[0];
+        }
+        int stamp = ++currentStamp;
+        int entries = 0;
+        int lowest = bucketHead.length;
+        int n = adjacency.getNodeCount();
+        for (int corner = 0; corner < n; corner++) {
+            if (isOnNetwork(corner, player)) {
+                int f = distances.distance(corner, target);
+                if (f >= bucketHead.length) {
+                    continue;
+                }
+                cost[corner] = 0;
+                costStamp[corner] = stamp;
+                viaEdge[corner] = -1;
+                entries = push(corner, f, entries, stamp);
+                lowest = Math.min(lowest, f);
+            }
+        }
+
+        // The estimate never drops by more than 1 per edge, so f never decreases and the queue is scanned once.
+        for (int f = lowest; f < bucketHead.length; f++) {
+            while (bucketStamp[f] == stamp && bucketHead[f] >= 0) {
+                int entry = bucketHead[f];
+                bucketHead[f] = entryNext[entry];
+                int corner = entryCorner[entry];
+                if (closedStamp[corner] == stamp) {
+                    continue;
+                }
+                closedStamp[corner] = stamp;
+                if (corner == target) {
+                    return walkBack(target);
+                }
+                // Routes stop at an opponent's building; they can reach it but not build on past it.
+                if (cost[corner] > 0 && board.getIntersection(corner).getBuilding() != null) {
+                    continue;
+                }
+                for (int k = 0; k < adjacency.degree(corner); k++) {
+                    int edgeID = adjacency.neighbourEdge(corner, k);
+                    int next = adjacency.neighbour(corner, k);
+                    if (board.isEdgeOccupied(edgeID)) {
+                        continue;
+                    }
+                    int nextCost = cost[corner] + 1;
+                    int nextF = nextCost + distances.distance(next, target);
+                    if ((costStamp[next] == stamp && cost[next] <= nextCost) || nextF >= bucketHead.length) {
+                        continue;
+                    }
+                    cost[next] = nextCost;
+                    costStamp[next] = stamp;
+                    viaEdge[next] = edgeID;
+                    entries = push(next, nextF, entries, stamp);
+                }
+            }
+        }
+        return null;
+    }
+
+    private int push(int corner, int f, int entries, int stamp) {
+        if (bucketStamp[f] != stamp) {
+            bucketStamp[f] = stamp;
+            bucketHead[f] = -1;
+        }
+        entryCorner[entries] = corner;
+        entryNext[entries] = bucketHead[f];
+        bucketHead[f] = entries;
+        return entries + 1;
+    }
+
+    private int[] walkBack(int target) {
+        int[] path = new int[cost[target]];
+        int corner = target;
+        for (int i = path.length - 1; i >= 0; i--) {
+            int edgeID = viaEdge[corner];
+            path[i] = edgeID;
+            corner = adjacency.edgeStart(edgeID) == corner ? adjacency.edgeEnd(edgeID) : adjacency.edgeStart(edgeID);
+        }
+        return path;
+    }
+}
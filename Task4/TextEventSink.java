@@ -0,0 +1,35 @@
+import java.util.List;
+
+// Turns events into the usual game log lines. Subclasses decide where the lines go.
+abstract class TextEventSink implements GameEventSink {
+
+    protected abstract void writeLine(String line);
+
+    @Override
+    public void roundStarted(int round) {
+        writeLine("******Round " + round + "******");
+    }
+
+    @Override
+    public void turnPlayed(int round, Player player, int roll, TurnAction action) {
+        writeLine(action.logLine(round, player.getPlayerID(), roll));
+    }
+
+    @Override
+    public void roundEnded(int round, List<Player> players) {
+        for (Player player : players) {
+            writeLine("Player " + player.getPlayerID() + " VP: " + player.getVictoryPoints());
+        }
+        writeLine("");
+    }
+
+    @Override
+    public void gameWon(Player winner) {
+        writeLine("Player " + winner.getPlayerID() + " wins with " + winner.getVictoryPoints() + " victory points!");
+    }
+
+    @Override
+    public void gameDrawn(int maxRounds) {
+        writeLine("Game ended after " + maxRounds + " rounds. No winner.");
+    }
+}
@@ -0,0 +1,106 @@
+import java.util.Arrays;
+
+// Fixed-size hash table of search results, keyed by a 64-bit position hash (Zobrist). Each slot is two longs, the
+// key XOR the data and the data, so any number of threads can read and write it without locks: a slot torn by two
+// writers racing no longer XORs back to its key and just reads as a miss. Data packs the value (float bits), the
+// depth it was searched to, whether the value is exact or a bound, and the best move. A slot is overwritten by a
+// different position, or by the same one searched at least as deep. The size is a power of two, set once.
+// A float is enough for the value: searches store win probabilities in [0, 1], where a float is within 2^-25 of
+// the double, and the ends 0 and 1 (won and lost games) are exact. Bounds are rounded outwards (a lower bound down,
+// an upper bound up), so a stored bound is never tighter than what the search proved and cannot cause a wrong
+// cutoff; only exact values move, by less than any difference the evaluation means anything by.
+final class TranspositionTable {
+    static final int EXACT = 0;
+    // Value is a lower bound (the search failed high) or an upper bound (failed low).
+    static final int LOWER = 1;
+    static final int UPPER = 2;
+    // Moves are stored plus one (so NO_MOVE is 0) in 22 bits: kind in the top 2, target below. The all-ones target is
+    // left out, since kind 3 with it would carry into the bound field.
+    static final int MAX_KIND = 3;
+    static final int MAX_TARGET = (1 << 20) - 2;
+    static final int NO_MOVE = -1;
+    // Depths are stored plus one in 8 bits.
+    static final int MAX_DEPTH = 254;
+
+    private final long[] slots;
+    private final int mask;
+
+    public TranspositionTable(int log2Entries) {
+        if (log2Entries < 1 || log2Entries > 28) {
+            throw new IllegalArgumentException("Table size must be 2^1 to 2^28 entries, not 2^" + log2Entries);
+        }
+        slots = new long[2 << log2Entries];
+        mask = (1 << log2Entries) - 1;
+    }
+
+    public int size() {
+        return mask + 1;
+    }
+
+    // Packed data for the position, or 0 if it is not in the table. Read it with value/depth/bound/move.
+    public long probe(long key) {
+        int slot = index(key);
+        long data = slots[slot + 1];
+        return (slots[slot] ^ data) == key ? data : 0;
+    }
+
+    // move is a code from moveCode, or NO_MOVE.
+    public void store(long key, double value, int depth, int bound, int move) {
+        int slot = index(key);
+        long old = slots[slot + 1];
+        if ((slots[slot] ^ old) == key && depth(old) > depth) {
+            return;
+        }
+        float stored = (float) value;
+        if (bound == LOWER && stored > value) {
+            stored = Math.nextDown(stored);
+        } else if (bound == UPPER && stored < value) {
+            stored = Math.nextUp(stored);
+        }
+        long data = (long) Float.floatToRawIntBits(stored) << 32 | (long) (depth + 1) << 24 | (long) bound << 22 | (move + 1L);
+        slots[slot] = key ^ data;
+        slots[slot + 1] = data;
+    }
+
+    public void clear() {
+        Arrays.fill(slots, 0);
+    }
+
+    public static int moveCode(int kind, int target) {
+        if (kind < 0 || kind > MAX_KIND) {
+            throw new IllegalArgumentException("Kind " + kind + " does not fit in a move code");
+        }
+        if (target < 0 || target > MAX_TARGET) {
+            throw new IllegalArgumentException("Target " + target + " does not fit in a move code");
+        }
+        return kind << 20 | target;
+    }
+
+    public static int moveKind(int move) {
+        return move >>> 20;
+    }
+
+    public static int moveTarget(int move) {
+        return move & MAX_TARGET;
+    }
+
+    public static double value(long data) {
+        return Float.intBitsToFloat((int) (data >>> 32));
+    }
+
+    public static int depth(long data) {
+        return (int) (data >>> 24 & 0xFF) - 1;
+    }
+
+    public static int bound(long data) {
+        return (int) (data >>> 22 & 3);
+    }
+
+    public static int move(long data) {
+        return (int) (data & 0x3FFFFF) - 1;
+    }
+
+    private int index(long key) {
+        return ((int) (key ^ key >>> 32) & mask) << 1;
+    }
+}
@@ -1,20 +1,67 @@
-// One turn = roll dice, give resources to players on that number, then get this player's one action (build something or try).
+import java.util.List;
+
+// One turn = roll dice, give resources to players on that number, then the player's agent picks one build from
+// their legal moves and we try it.
 class Turn {
 
     private Dice dice;
     private Production production;
     private Board board;
+    private GameEventSink sink;
+    private TurnAction action = new TurnAction(); // Reused every turn.
+    private MoveList moves = new MoveList(); // Reused every turn.
+    private GameView view;
 
     public Turn(Dice dice, Production production, Board board) {
+        this(dice, production, board, new ConsoleEventSink());
+    }
+
+    public Turn(Dice dice, Production production, Board board, GameEventSink sink) {
         this.dice = dice;
         this.production = production;
         this.board = board;
+        this.sink = sink;
+        this.view = new GameView(board);
     }
 
-    public String execute(Player player, int roundNumber) {
+    // The player in this seat of the turn order (players) takes their turn.
+    public void execute(List<Player> players, int seat, int roundNumber) {
         int roll = dice.roll();
         production.generateResources(roll); // Give out resources to all players on hexes that match the roll.
-        String actionResult = player.takeRandomAction(board);
-        return "[" + roundNumber + "] / [" + player.getPlayerID() + "]: Rolled " + roll + ", " + actionResult;
+        playAction(players, seat, roundNumber);
+        sink.turnPlayed(roundNumber, players.get(seat), roll, action);
+    }
+
+    // Asks the player's agent for a move and tries it. Over 7 cards the turn counts as a forced spend.
+    TurnAction playAction(List<Player> players, int seat, int roundNumber) {
+        Player player = players.get(seat);
+        boolean forced = player.getTotalResources() > 7;
+        moves.fill(board.getMoveGenerator(), player);
+        view.set(players, seat, roundNumber);
+        int choice = player.getAgent().chooseMove(view, moves);
+        if (choice == Agent.PASS) {
+            action.setNone(forced);
+            return action;
+        }
+
+        int target = moves.target(choice);
+        int vpBefore = player.getVictoryPoints();
+        switch (moves.kind(choice)) {
+            case SETTLEMENT:
+                player.buildSettlement(board, board.getIntersection(target));
+                action.set(TurnAction.Kind.SETTLEMENT, forced, player.getVictoryPoints() > vpBefore, target);
+                break;
+            case CITY:
+                player.buildCity(board, board.getIntersection(target));
+                action.set(TurnAction.Kind.CITY, forced, player.getVictoryPoints() > vpBefore, target);
+                break;
+            default:
+                int roadsBefore = player.getPlayerRoads().size();
+                player.buildRoad(board, target);
+                BoardAdjacency adjacency = board.getAdjacency();
+                action.setRoad(forced, player.getPlayerRoads().size() > roadsBefore, adjacency.edgeStart(target), adjacency.edgeEnd(target));
+                break;
+        }
+        return action;
     }
-}
\ No newline at end of file
+}
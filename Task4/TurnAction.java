@@ -0,0 +1,98 @@
+// What a player did on their turn, filled in by Turn once their agent has chosen. Turn reuses one of these for every
+// turn so nothing is allocated, and the text version is only made if a sink asks for it.
+final class TurnAction {
+
+    enum Kind {
+        SETTLEMENT,
+        CITY,
+        ROAD,
+        NONE
+    }
+
+    private Kind kind = Kind.NONE;
+    private boolean forced;
+    private boolean built;
+    private int location;
+    private int roadEnd;
+
+    // Settlement or city at a corner.
+    public void set(Kind kind, boolean forced, boolean built, int intersectionID) {
+        this.kind = kind;
+        this.forced = forced;
+        this.built = built;
+        this.location = intersectionID;
+        this.roadEnd = -1;
+    }
+
+    public void setRoad(boolean forced, boolean built, int start, int end) {
+        this.kind = Kind.ROAD;
+        this.forced = forced;
+        this.built = built;
+        this.location = start;
+        this.roadEnd = end;
+    }
+
+    public void setNone(boolean forced) {
+        this.kind = Kind.NONE;
+        this.forced = forced;
+        this.built = false;
+        this.location = -1;
+        this.roadEnd = -1;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    // True if the player was over 7 cards and had to try to spend.
+    public boolean isForced() {
+        return forced;
+    }
+
+    public boolean isBuilt() {
+        return built;
+    }
+
+    // Corner of the settlement/city, or the first corner of the road.
+    public int getLocation() {
+        return location;
+    }
+
+    public int getRoadEnd() {
+        return roadEnd;
+    }
+
+    // The game log line for this turn. Every sink that writes turns as text goes through here so they read the same.
+    public String logLine(int round, int playerID, int roll) {
+        return "[" + round + "] / [" + playerID + "]: Rolled " + roll + ", " + describe();
+    }
+
+    // Forced spends say whether the build went through, since an agent may pick one that fails.
+    public String describe() {
+        if (forced) {
+            switch (kind) {
+                case SETTLEMENT:
+                    return (built ? "forced spend: built" : "forced spend: could not build") + " settlement at "
+                            + location;
+                case CITY:
+                    return (built ? "forced spend: upgraded" : "forced spend: could not upgrade") + " to city at "
+                            + location;
+                case ROAD:
+                    return (built ? "forced spend: built" : "forced spend: could not build") + " road at " + location
+                            + "-" + roadEnd;
+                default:
+                    return "forced spend: could not build anything";
+            }
+        }
+        switch (kind) {
+            case SETTLEMENT:
+                return "attempted settlement at " + location;
+            case CITY:
+                return "attempted city at " + location;
+            case ROAD:
+                return "attempted road at edge " + location + "-" + roadEnd;
+            default:
+                return "no action taken";
+        }
+    }
+}
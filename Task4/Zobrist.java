@@ -0,0 +1,60 @@
+// Zobrist-style 64-bit keys for everything that makes up a position: buildings (corner, owner, settlement/city),
+// roads (edge, owner), hands (owner, resource, count), VP (owner, points), the Longest Road holder and the player to
+// move. A position's hash is the XOR of the
+// keys of everything in it, so each change is a couple of XORs. Keys come from mixing the feature's numbers with
+// SplitMix64 rather than a random table, so they are the same in every JVM and work for any board size or player ID.
+final class Zobrist {
+    private static final long BUILDING = 1;
+    private static final long ROAD = 2;
+    private static final long HAND = 3;
+    private static final long TO_MOVE = 4;
+    private static final long VICTORY_POINTS = 5;
+    private static final long LONGEST_ROAD = 6;
+
+    private Zobrist() {
+    }
+
+    public static long building(int intersectionID, int playerID, boolean city) {
+        return mix(BUILDING, intersectionID, playerID, city ? 1 : 0);
+    }
+
+    public static long road(int edgeID, int playerID) {
+        return mix(ROAD, edgeID, playerID, 0);
+    }
+
+    public static long hand(int playerID, int resourceIndex, int count) {
+        return mix(HAND, resourceIndex, playerID, count);
+    }
+
+    public static long toMove(int playerID) {
+        return mix(TO_MOVE, 0, playerID, 0);
+    }
+
+    public static long victoryPoints(int playerID, int points) {
+        return mix(VICTORY_POINTS, points, playerID, 0);
+    }
+
+    // Key for the Longest Road holder, or 0 if nobody holds it.
+    public static long longestRoad(Player holder) {
+        return holder == null ? 0 : mix(LONGEST_ROAD, 0, holder.getPlayerID(), 0);
+    }
+
+    // Board (buildings and roads), every hand and VP total, the Longest Road holder, and whose turn it is. The holder
+    // is kept on a tie, so two positions with the same roads can differ in who has it.
+    public static long position(Board board, Iterable<Player> players, Player toMove) {
+        long hash = board.getZobristHash() ^ toMove(toMove.getPlayerID());
+        hash ^= longestRoad(board.getLongestRoad().getHolder());
+        for (Player player : players) {
+            hash ^= player.getHand().getZobristHash() ^ victoryPoints(player.getPlayerID(), player.getVictoryPoints());
+        }
+        return hash;
+    }
+
+    private static long mix(long kind, int a, int b, int c) {
+        long z = (kind << 56) ^ ((long) a << 28) ^ ((long) b << 12) ^ c;
+        z += 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}